@@ -0,0 +1,56 @@
+package com.mnms.booking.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/// IDENTITY → SEQUENCE(pooled) 전환 후 기존 행과 id가 겹치지 않도록 부팅 시 시퀀스 위치 보정
+///  - ddl-auto=update는 시퀀스를 1부터 만들기 때문에 기존 데이터가 있는 DB에서는 첫 INSERT부터 PK 중복
+///  - 다음 블록(nextval - allocationSize + 1 ~ nextval)이 MAX(id) 이하와 겹치면 MAX(id) + allocationSize로 재시작
+///  - 스키마 생성(entityManagerFactory) 이후, 스케줄러/Kafka 리스너가 INSERT를 시작하기 전에 실행
+///  - 보정에 실패하면 PK 충돌 상태로 뜨지 않도록 부팅 중단
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    /// 엔티티 @SequenceGenerator 설정과 같아야 함 (Ticket, QrCode)
+    private static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("ticket_seq", "ticket", 50),
+            new IdSequence("qr_code_seq", "qr_code", 50)
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record IdSequence(String sequenceName, String tableName, int allocationSize) {}
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach(this::align);
+    }
+
+    private void align(IdSequence sequence) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + sequence.tableName(), Long.class);
+            if (maxId == null) {
+                return;
+            }
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence.sequenceName(), Long.class);
+            if (next != null && next - sequence.allocationSize() + 1 > maxId) {
+                return;
+            }
+            long restartWith = maxId + sequence.allocationSize();
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence.sequenceName() + " RESTART WITH " + restartWith);
+            log.warn("Sequence {} restarted at {} (max {}.id = {})", sequence.sequenceName(), restartWith, sequence.tableName(), maxId);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("Failed to align id sequence " + sequence.sequenceName(), e);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.mnms.booking.config;
 
-import com.mnms.booking.service.KeyExpirationListener;
+import com.mnms.booking.enums.WebSocketBrokerMode;
+import com.mnms.booking.service.FestivalCache;
 import com.mnms.booking.service.RedisMessageSubscriber;
+import com.mnms.booking.service.WaitingBroadcastSubscriber;
+import com.mnms.booking.service.WaitingQueueSchedulingService;
+import com.mnms.booking.service.WaitingWakeUpSubscriber;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
-import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -31,31 +36,38 @@ public class RedisConfig {
     @Bean
     public RedisMessageListenerContainer redisMessageListenerContainer(
             RedisConnectionFactory connectionFactory,
-            MessageListenerAdapter waitingNotificationListenerAdapter,
-            KeyExpirationListener keyExpirationListener
+            RedisMessageSubscriber redisMessageSubscriber,
+            WaitingBroadcastSubscriber waitingBroadcastSubscriber,
+            WaitingWakeUpSubscriber waitingWakeUpSubscriber,
+            FestivalCache festivalCache,
+            @Value("${websocket.broker.mode:SIMPLE}") WebSocketBrokerMode brokerMode
     ) {
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(connectionFactory);
 
-        // waiting_notification:* 구독
-        container.addMessageListener(waitingNotificationListenerAdapter, new PatternTopic("waiting_notification/*"));
-        log.info("Subscribed to Redis channels with pattern: waiting_notification/*");
+        // RELAY 모드는 STOMP 브로커가 직접 전달하므로 대기 순번 채널을 구독하지 않음
+        if (brokerMode == WebSocketBrokerMode.SIMPLE) {
+            // waiting_notification:* 구독
+            container.addMessageListener(redisMessageSubscriber, new PatternTopic("waiting_notification/*"));
+            log.info("Subscribed to Redis channels with pattern: waiting_notification/*");
 
-        // Keyspace 구독 (예매 완료 이벤트)
-        container.addMessageListener(keyExpirationListener, new PatternTopic("__keyevent@0__:expired"));
-        log.info("Subscribed to Redis key expiration events");
+            // waiting_broadcast/* 구독 (브로드캐스트 모드 선두 sequence)
+            container.addMessageListener(waitingBroadcastSubscriber, new PatternTopic("waiting_broadcast/*"));
+            log.info("Subscribed to Redis channels with pattern: waiting_broadcast/*");
+        }
 
-        return container;
-    }
+        // 예매 페이지 자리 반환 → 대기열 입장 처리 즉시 실행
+        container.addMessageListener(waitingWakeUpSubscriber, new ChannelTopic(WaitingQueueSchedulingService.WAKE_UP_CHANNEL));
+        log.info("Subscribed to Redis channel: {}", WaitingQueueSchedulingService.WAKE_UP_CHANNEL);
 
+        // 공연 정보 캐시 무효화 (Kafka 이벤트를 받은 노드가 발행)
+        container.addMessageListener(festivalCache, new ChannelTopic(FestivalCache.INVALIDATION_CHANNEL));
+        log.info("Subscribed to Redis channel: {}", FestivalCache.INVALIDATION_CHANNEL);
 
-    /// Redis 메시지를 받아 처리할 리스너 어댑터 (RedisMessageSubscriber와 연결)
-    @Bean
-    public MessageListenerAdapter listenerAdapter(RedisMessageSubscriber subscriber) {
-        // RedisMessageSubscriber의 "onMessage" 메서드를 호출하도록 설정
-        return new MessageListenerAdapter(subscriber, "onMessage");
+        return container;
     }
 
+
     /// Redis Pub/Sub 메시지를 발행하는 데 사용될 템플릿
     @Bean
     public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
@@ -1,7 +1,10 @@
 package com.mnms.booking.config;
 
+import com.mnms.booking.enums.WebSocketBrokerMode;
 import com.mnms.booking.security.StompConnectInterceptor;
+import com.mnms.booking.service.WaitingSubscriptionInterceptor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -15,10 +18,40 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final StompConnectInterceptor  interceptors;
+    private final WaitingSubscriptionInterceptor waitingSubscriptionInterceptor;
+
+    @Value("${websocket.broker.mode:SIMPLE}")
+    private WebSocketBrokerMode brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // 구독경로
-        config.enableSimpleBroker("/topic", "/queue");
+        if (brokerMode == WebSocketBrokerMode.RELAY) {
+            // 외부 STOMP 브로커(RabbitMQ/ActiveMQ 등) 중계 : 구독은 브로커가 보관, 사용자 세션 정보는 노드 간 공유
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         // 클라이언트 → 서버 메시지 경로
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
@@ -33,6 +66,6 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(interceptors);
+        registration.interceptors(interceptors, waitingSubscriptionInterceptor);
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.mnms.booking.controller;
 
+import com.mnms.booking.dto.request.BookingHeartbeatRequestDTO;
 import com.mnms.booking.dto.request.LeaveQueueRequestDTO;
 import com.mnms.booking.service.WaitingService;
 import lombok.RequiredArgsConstructor;
@@ -50,4 +51,17 @@ public class BookingEventController {
                 log.info("서버 오류로 인해 사용자를 처리하지 못했습니다.");
         }
     }
+
+    // 예매 페이지 체류 heartbeat (끊기면 예매 페이지 자리 반환)
+    @MessageMapping("/queue/reservation/heartbeat")
+    public void heartbeat(BookingHeartbeatRequestDTO request, Principal principal) {
+        try {
+            boolean alive = waitingService.heartbeat(request.getFestivalId(), request.getReservationDate(), principal.getName());
+            if (!alive) {
+                log.info("해당 사용자는 예매 사용자 목록에 없습니다.");
+            }
+        } catch (Exception e) {
+            log.info("서버 오류로 인해 heartbeat를 처리하지 못했습니다.");
+        }
+    }
 }
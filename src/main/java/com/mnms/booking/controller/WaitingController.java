@@ -41,14 +41,15 @@ public class WaitingController implements WaitingSpecification {
 
         String userId =  authentication != null ? getUserId(authentication) : "swagger-test-user";
 
-        int availableNOP = festivalService.getCapacity(festivalId); // 수용 인원 가져오기
-        long waitingNumber = waitingService.enterWaitingQueue(festivalId, reservationDate, userId, availableNOP);
+        int availableNOP = festivalService.getCapacity(festivalId, reservationDate); // 회차 확인 + 수용 인원 가져오기
+        WaitingNumberResponseDTO waitingNumber = waitingService.enterWaitingQueue(festivalId, reservationDate, userId, availableNOP);
 
-        if (waitingNumber == 0) {
-            return ApiResponseUtil.success(new WaitingNumberResponseDTO(userId, 0, true, "REDIRECT_TO_BOOKING_PAGE"));
+        if (waitingNumber.isImmediateEntry()) {
+            waitingNumber.setMessage("REDIRECT_TO_BOOKING_PAGE");
         } else {
-            return ApiResponseUtil.success(new WaitingNumberResponseDTO(userId, waitingNumber, false, "WAITING_QUEUE_ENTERED"));
+            waitingNumber.setMessage("WAITING_QUEUE_ENTERED");
         }
+        return ApiResponseUtil.success(waitingNumber);
     }
 
     /// 예매 페이지 퇴장
@@ -69,6 +70,20 @@ public class WaitingController implements WaitingSpecification {
         }
     }
 
+    /// 예매 페이지 체류 heartbeat
+    @GetMapping("/heartbeat")
+    public ResponseEntity<SuccessResponse<String>> heartbeat(
+            @RequestParam String festivalId,
+            @RequestParam LocalDateTime reservationDate,
+            @Parameter(hidden = true) Authentication authentication) {
+        boolean alive = waitingService.heartbeat(festivalId, reservationDate, getUserId(authentication));
+        if (alive) {
+            return ApiResponseUtil.success("예매 페이지 체류가 갱신되었습니다.");
+        } else {
+            return ApiResponseUtil.fail("해당 사용자는 예매 사용자 목록에 없습니다.", HttpStatus.NOT_FOUND);
+        }
+    }
+
     /// 대기열에서 퇴장
     @GetMapping("/exit")
     public ResponseEntity<SuccessResponse<String>> exitWaitingUser(
@@ -0,0 +1,11 @@
+package com.mnms.booking.dto.request;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingHeartbeatRequestDTO {
+    private String festivalId;
+    private LocalDateTime reservationDate;
+}
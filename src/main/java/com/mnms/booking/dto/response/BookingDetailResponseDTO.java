@@ -1,7 +1,7 @@
 package com.mnms.booking.dto.response;
 
-import com.mnms.booking.entity.Festival;
 import com.mnms.booking.entity.Ticket;
+import com.mnms.booking.service.FestivalCache;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -20,15 +20,15 @@ public class BookingDetailResponseDTO {
     private Long sellerId;
     private int ticketPick;
 
-    public static BookingDetailResponseDTO fromEntities(Festival festival, Ticket ticket) {
+    public static BookingDetailResponseDTO fromSnapshot(FestivalCache.FestivalSnapshot festival, Ticket ticket) {
         return BookingDetailResponseDTO.builder()
-                .festivalName(festival.getFname())
-                .posterFile(festival.getPosterFile())
-                .sellerId(festival.getOrganizer())
-                .ticketPrice(festival.getTicketPrice())
+                .festivalName(festival.fname())
+                .posterFile(festival.posterFile())
+                .sellerId(festival.organizer())
+                .ticketPrice(festival.ticketPrice())
                 .performanceDate(ticket.getPerformanceDate())
                 .ticketCount(ticket.getSelectedTicketCount())
-                .ticketPick(festival.getTicketPick())
+                .ticketPick(festival.ticketPick())
                 .build();
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.mnms.booking.dto.response;
 
-import com.mnms.booking.entity.Festival;
+import com.mnms.booking.service.FestivalCache;
 import lombok.Builder;
 import lombok.Data;
 
@@ -20,14 +20,14 @@ public class FestivalDetailResponseDTO {
     ///  ticket 정보
     private LocalDateTime performanceDate; // 선택 날짜,시간
 
-    public static FestivalDetailResponseDTO fromEntity(Festival festival, LocalDateTime performanceDate, List<ScheduleResponseDTO> schedules) {
+    public static FestivalDetailResponseDTO fromSnapshot(FestivalCache.FestivalSnapshot festival, LocalDateTime performanceDate) {
         return FestivalDetailResponseDTO.builder()
-                .fname(festival.getFname())
-                .ticketPrice(festival.getTicketPrice())
-                .posterFile(festival.getPosterFile())
-                .maxPurchase(festival.getMaxPurchase())
+                .fname(festival.fname())
+                .ticketPrice(festival.ticketPrice())
+                .posterFile(festival.posterFile())
+                .maxPurchase(festival.maxPurchase())
                 .performanceDate(performanceDate)
-                .schedules(schedules)
+                .schedules(festival.schedules())
                 .build();
     }
 
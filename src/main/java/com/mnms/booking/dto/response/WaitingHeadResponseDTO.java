@@ -0,0 +1,14 @@
+package com.mnms.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/// 브로드캐스트 모드에서 /topic/waiting/{festivalId}/{yyyyMMddHHmm} 으로 발행되는 대기열 선두 정보
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingHeadResponseDTO {
+    private long headSequence; // 마지막으로 입장 처리된 번호표 (served)
+    private long waitingCount; // 현재 대기 인원
+}
@@ -1,16 +1,22 @@
 package com.mnms.booking.dto.response;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class WaitingNumberResponseDTO {
     private String userId;
     private long waitingNumber; // 대기 순번
+    private long joinSequence; // 대기 번호표 (대기 순번 ≈ joinSequence - headSequence)
+    private long estimatedWaitSeconds; // 예상 대기 시간 (초, -1 = 입장 속도 측정 전)
+    private long pollIntervalMillis; // 권장 재조회 간격 (예상 대기 시간이 길수록 길어짐)
+    private int lane; // 분할 대기열 lane (브로드캐스트 구독: /topic/waiting/{festivalId}/{yyyyMMddHHmm}/{lane})
     // 선택
     private boolean immediateEntry; // 즉시 입장 여부 추가 (또는 다른 상태 필드)
     private String message; // 사용자에게 보여줄 메시지 추가 (선택 사항)
-}
\ No newline at end of file
+}
@@ -14,12 +14,15 @@ import java.time.LocalDateTime;
 @Table(name = "qr_code")
 public class QrCode {
 
+    /// 시퀀스(pooled) : IDENTITY와 달리 INSERT 전에 id를 알 수 있어 JDBC batch insert 가능
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qr_code_seq")
+    @SequenceGenerator(name = "qr_code_seq", sequenceName = "qr_code_seq", allocationSize = 50)
     private Long id; // qr_id
 
+    /// 중복은 사전 조회 대신 unique 인덱스로 보장 (128bit 난수라 충돌 확률은 무시 가능)
     @Setter
-    @Column(name = "qr_code_id", nullable = false)
+    @Column(name = "qr_code_id", nullable = false, unique = true)
     private String qrCodeId;
 
     @Column(name = "issued_at", nullable = false)
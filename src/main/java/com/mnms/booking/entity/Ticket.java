@@ -13,11 +13,12 @@ import java.util.List;
 @Builder @Getter
 @AllArgsConstructor
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name = "ticket")
+@Table(name = "ticket", indexes = @Index(name = "idx_ticket_hold_expires_at", columnList = "hold_expires_at"))
 public class Ticket {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id; // ticket_id
 
     @Column(name = "reservation_number")
@@ -49,6 +50,10 @@ public class Ticket {
     @Column(name = "selected_ticket_count")
     private int selectedTicketCount; // 선택 매수
 
+    @Setter
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt; // 가예매 만료 시각 (확정/취소 시 null)
+
     @Setter
     @Column(name = "address")
     private String address; // 수령주소
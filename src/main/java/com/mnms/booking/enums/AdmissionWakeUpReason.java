@@ -0,0 +1,6 @@
+package com.mnms.booking.enums;
+
+public enum AdmissionWakeUpReason {
+    BOOKING_EXIT,   // 예매 페이지 퇴장 (/release, STOMP leave)
+    HOLD_EXPIRED    // 가예매 TTL 만료
+}
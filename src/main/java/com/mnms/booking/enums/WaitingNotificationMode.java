@@ -0,0 +1,6 @@
+package com.mnms.booking.enums;
+
+public enum WaitingNotificationMode {
+    PER_USER,   // 대기자마다 순번 발행
+    BROADCAST   // 공연/회차 채널에 선두 sequence 하나만 발행 (순번은 클라이언트가 계산)
+}
@@ -0,0 +1,6 @@
+package com.mnms.booking.enums;
+
+public enum WebSocketBrokerMode {
+    SIMPLE, // 노드 내장 SimpleBroker (대기 순번은 Redis Pub/Sub으로 모든 노드에 전달)
+    RELAY   // 외부 STOMP 브로커 중계 (사용자 세션이 있는 노드로만 전달)
+}
@@ -0,0 +1,4 @@
+package com.mnms.booking.event;
+
+/// 가예매 TTL 연장 요청 (DB 커밋 후 Redis 반영)
+public record TempReservationRefreshEvent(String reservationNumber, long ttlMinutes) {}
\ No newline at end of file
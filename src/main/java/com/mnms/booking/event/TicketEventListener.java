@@ -34,4 +34,17 @@ public class TicketEventListener {
             log.error("티켓 확정 후 이메일 전송 실패: reservationNumber={}", ticketDto.getReservationNumber(), e);
         }
     }
+
+    /// 가예매 TTL 연장 : 커밋 후 별도 스레드에서 실행 (Redis 지연이 DB 커넥션 점유 시간에 더해지지 않도록)
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTempReservationRefresh(TempReservationRefreshEvent event) {
+        try {
+            if (!tempReservationService.refreshTempReservation(event.reservationNumber(), event.ttlMinutes())) {
+                log.warn("가예매 TTL 연장 실패 (이미 만료됨): reservationNumber={}", event.reservationNumber());
+            }
+        } catch (Exception e) {
+            log.error("가예매 TTL 연장 실패: reservationNumber={}", event.reservationNumber(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -53,6 +53,7 @@ public enum ErrorCode {
     REDIS_PUBLISH_FAILED("R003", "Redis Pub/Sub 발행에 실패했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
     JSON_SERIALIZATION_FAILED("S001", "메시지 직렬화에 실패했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
     REDIS_OPERATION_FAILED("R004", "Redis 명령 실행 중 오류가 발생했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
+    STOMP_SEND_FAILED("W006", "STOMP 브로커로 메시지 전송에 실패했습니다.", HttpStatus.INTERNAL_SERVER_ERROR),
 
     // Transfer
     TRANSFER_NOT_VALID_FILE_TYPE("TR001","유효하지 않은 파일 확장자입니다.",HttpStatus.NOT_ACCEPTABLE),
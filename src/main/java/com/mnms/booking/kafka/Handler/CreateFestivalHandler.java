@@ -4,6 +4,7 @@ import com.mnms.booking.entity.Festival;
 import com.mnms.booking.entity.Schedule;
 import com.mnms.booking.kafka.dto.FestivalEventDTO;
 import com.mnms.booking.repository.FestivalRepository;
+import com.mnms.booking.service.FestivalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +15,7 @@ import java.util.List;
 public class CreateFestivalHandler implements FestivalEventHandler {
 
     private final FestivalRepository festivalRepository;
+    private final FestivalCache festivalCache;
 
     @Override
     public void handle(FestivalEventDTO dto) {
@@ -25,5 +27,6 @@ public class CreateFestivalHandler implements FestivalEventHandler {
 
         festival.setSchedules(schedules);
         festivalRepository.save(festival);
+        festivalCache.invalidate(dto.getId());
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.mnms.booking.kafka.Handler;
 
 import com.mnms.booking.kafka.dto.FestivalEventDTO;
 import com.mnms.booking.repository.FestivalRepository;
+import com.mnms.booking.service.FestivalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -10,9 +11,11 @@ import org.springframework.stereotype.Service;
 public class DeleteFestivalHandler implements FestivalEventHandler {
 
     private final FestivalRepository festivalRepository;
+    private final FestivalCache festivalCache;
 
     @Override
     public void handle(FestivalEventDTO dto) {
         festivalRepository.findByFestivalId(dto.getId()).ifPresent(festivalRepository::delete);
+        festivalCache.invalidate(dto.getId());
     }
 }
\ No newline at end of file
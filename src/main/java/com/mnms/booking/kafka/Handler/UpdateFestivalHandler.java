@@ -3,6 +3,7 @@ package com.mnms.booking.kafka.Handler;
 import com.mnms.booking.entity.Schedule;
 import com.mnms.booking.kafka.dto.FestivalEventDTO;
 import com.mnms.booking.repository.FestivalRepository;
+import com.mnms.booking.service.FestivalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,7 @@ import java.util.List;
 public class UpdateFestivalHandler implements FestivalEventHandler {
 
     private final FestivalRepository festivalRepository;
+    private final FestivalCache festivalCache;
 
     @Override
     @Transactional
@@ -30,5 +32,6 @@ public class UpdateFestivalHandler implements FestivalEventHandler {
                     festival.mergeSchedules(updatedSchedules);
                     festivalRepository.save(festival);
                 });
+        festivalCache.invalidate(dto.getId());
     }
 }
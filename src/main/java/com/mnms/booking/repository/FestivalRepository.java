@@ -1,6 +1,7 @@
 package com.mnms.booking.repository;
 
 import com.mnms.booking.entity.Festival;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,10 @@ import java.util.Optional;
 @Repository
 public interface FestivalRepository extends JpaRepository<Festival, Long> {
     Optional<Festival> findByFestivalId(String festivalId);
+
+    // 공연 캐시 적재용 (일정 fetch join)
+    @EntityGraph(attributePaths = "schedules")
+    Optional<Festival> findWithSchedulesByFestivalId(String festivalId);
     Festival findByFestivalIdAndOrganizer(String festivalId , Long organizer);
 
     // festivalId와 organizer(userId)가 일치하는 엔티티가 존재하는지 확인
@@ -4,7 +4,11 @@ import com.mnms.booking.dto.response.StatisticsBookingDTO;
 import com.mnms.booking.entity.Festival;
 import com.mnms.booking.entity.Ticket;
 import com.mnms.booking.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,19 +21,6 @@ import java.util.Optional;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
-    @Query("SELECT COALESCE(SUM(t.selectedTicketCount), 0) " +
-            "FROM Ticket t " +
-            "WHERE t.userId = :userId " +
-            "AND t.festival.festivalId = :festivalId " +
-            "AND t.performanceDate >= :startDate " +
-            "AND t.performanceDate < :endDate")
-    Long sumSelectedTicketCount(
-            @Param("userId") Long userId,
-            @Param("festivalId") String festivalId,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate);
-
-
     @Query("SELECT t " +
             "FROM Ticket t " +
             "WHERE t.festival.festivalId = :festivalId AND t.userId = :userId AND t.reservationNumber = :reservationNumber")
@@ -58,19 +49,16 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
             "WHERE t.festival.festivalId = :festivalId ")
     List<Ticket> findByFestivalId(String festivalId);
 
-    @Query("SELECT t.selectedTicketCount " +
-            "FROM Ticket t " +
-            "WHERE t.reservationNumber = :reservationNumber")
-    Long findTicketCountByReservationNumber(@Param("reservationNumber") String reservationNumber);
-
-    @Query("SELECT COALESCE(SUM(t.selectedTicketCount), 0) " +
+    /// 회차별 사용자 점유 매수 : [userId, SUM(selectedTicketCount)]
+    @Query("SELECT t.userId, SUM(t.selectedTicketCount) " +
             "FROM Ticket t " +
             "WHERE t.festival.festivalId = :festivalId " +
             "AND t.performanceDate = :performanceDate " +
-            "AND t.reservationStatus IN (:statuses)")
-    int getTotalSelectedTicketCount(@Param("festivalId") String festivalId,
-                                    @Param("performanceDate") LocalDateTime performanceDate,
-                                    @Param("statuses") List<ReservationStatus> statuses);
+            "AND t.reservationStatus IN (:statuses) " +
+            "GROUP BY t.userId")
+    List<Object[]> sumSelectedTicketCountGroupByUser(@Param("festivalId") String festivalId,
+                                                     @Param("performanceDate") LocalDateTime performanceDate,
+                                                     @Param("statuses") List<ReservationStatus> statuses);
 
     List<Ticket> findByUserIdAndReservationStatusIn(Long userId, List<ReservationStatus> statuses);
     Optional<Ticket> findByUserIdAndReservationNumber(Long userId, String reservationNumber);
@@ -106,23 +94,46 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<StatisticsBookingDTO> findBookedSummary(@Param("festivalId") String festivalId, @Param("status") ReservationStatus status);
 
 
-    @Query("""
-        SELECT t
-        FROM Ticket t
-        JOIN t.festival f
-        WHERE f.id = :festivalId
-          AND t.performanceDate = :performanceDate
-          AND t.userId = :userId
-          AND t.reservationStatus = :reservationStatus
-    """)
-    List<Ticket> findTempReservedTickets(
-            @Param("festivalId") Long festivalId,
-            @Param("performanceDate") LocalDateTime performanceDate,
-            @Param("userId") Long userId,
-            @Param("reservationStatus") ReservationStatus reservationStatus
-    );
-
-    @Query("SELECT t FROM Ticket t JOIN FETCH t.festival WHERE t.reservationNumber = :reservationNumber")
-    Optional<Ticket> findByReservationNumberWithFestival(@Param("reservationNumber") String reservationNumber);
+    /// 다시 예매할 때 지울 기존 가예매 : [id, selectedTicketCount] (만료 처리와 겹치지 않도록 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id, t.selectedTicketCount " +
+            "FROM Ticket t " +
+            "WHERE t.festival.id = :festivalId " +
+            "AND t.performanceDate = :performanceDate " +
+            "AND t.userId = :userId " +
+            "AND t.reservationStatus = :reservationStatus")
+    List<Object[]> findTempReservedHoldsForUpdate(@Param("festivalId") Long festivalId,
+                                                  @Param("performanceDate") LocalDateTime performanceDate,
+                                                  @Param("userId") Long userId,
+                                                  @Param("reservationStatus") ReservationStatus reservationStatus);
+
+    /// 만료 처리 대상 가예매 : [id, reservationNumber] (결제 확정과 겹치지 않도록 행 잠금)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id, t.reservationNumber " +
+            "FROM Ticket t " +
+            "WHERE t.reservationNumber IN :reservationNumbers " +
+            "AND t.reservationStatus IN :statuses")
+    List<Object[]> findHoldIdsForUpdate(@Param("reservationNumbers") List<String> reservationNumbers,
+                                        @Param("statuses") List<ReservationStatus> statuses);
+
+    /// 만료 시각이 지난 가예매 : [id, reservationNumber, festivalId, performanceDate, userId, selectedTicketCount]
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id, t.reservationNumber, t.festival.festivalId, t.performanceDate, t.userId, t.selectedTicketCount " +
+            "FROM Ticket t " +
+            "WHERE t.holdExpiresAt < :cutoff " +
+            "AND t.reservationStatus IN :statuses " +
+            "ORDER BY t.holdExpiresAt")
+    List<Object[]> findExpiredHoldsForUpdate(@Param("cutoff") LocalDateTime cutoff,
+                                             @Param("statuses") List<ReservationStatus> statuses,
+                                             Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.id IN :ids AND t.reservationStatus = :reservationStatus")
+    int deleteAllByIdInAndReservationStatus(@Param("ids") List<Long> ids,
+                                            @Param("reservationStatus") ReservationStatus reservationStatus);
 }
 
@@ -0,0 +1,57 @@
+package com.mnms.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/// 대기열 → 예매 페이지 초당 입장 인원 제한 (수용 인원 제한과 별도로 DB 부하 보호용)
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AdmissionRateService {
+
+    /// 공연별 설정 : HSET waiting_admission_rate {festivalId} {초당 입장 인원}
+    private static final String FESTIVAL_RATE_KEY = "waiting_admission_rate";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final WaitingQueueKeyGenerator waitingQueueKeyGenerator;
+
+    /// 기본 초당 입장 인원 (0 = 제한 없음)
+    @Value("${waiting-queue.admission.rate-per-second:0}")
+    private long defaultRatePerSecond;
+
+    /// 한 번에 몰아서 입장 가능한 최대 인원 (0 = 초당 입장 인원과 동일)
+    @Value("${waiting-queue.admission.burst:0}")
+    private long burst;
+
+    public record AdmissionRate(long ratePerSecond, long burst) {}
+
+    /// 공연별 설정이 있으면 우선 사용, 없으면 기본값
+    public AdmissionRate getAdmissionRate(String festivalId) {
+        long rate = defaultRatePerSecond;
+        try {
+            Object override = stringRedisTemplate.opsForHash().get(FESTIVAL_RATE_KEY, festivalId);
+            if (override != null) {
+                rate = Long.parseLong(override.toString());
+            }
+        } catch (NumberFormatException | RedisConnectionFailureException | RedisSystemException e) {
+            log.warn("Failed to read admission rate for festival {}, using default: {}", festivalId, e.getMessage());
+        }
+        return new AdmissionRate(rate, burst > 0 ? burst : rate);
+    }
+
+    /// 분할 대기열: 공연 전체 입장 인원을 lane 정원과 같은 방식으로 나눠 적용 (제한이 있으면 lane마다 최소 1명)
+    public AdmissionRate getAdmissionRate(String festivalId, int lane, int laneCount) {
+        AdmissionRate total = getAdmissionRate(festivalId);
+        if (total.ratePerSecond() <= 0) {
+            return total;
+        }
+        return new AdmissionRate(
+                Math.max(1, waitingQueueKeyGenerator.getLaneShare(total.ratePerSecond(), lane, laneCount)),
+                Math.max(1, waitingQueueKeyGenerator.getLaneShare(total.burst(), lane, laneCount)));
+    }
+}
@@ -7,54 +7,76 @@ import com.mnms.booking.dto.request.TicketRequestDTO;
 import com.mnms.booking.entity.*;
 import com.mnms.booking.enums.ReservationStatus;
 import com.mnms.booking.enums.TicketType;
+import com.mnms.booking.event.TempReservationRefreshEvent;
 import com.mnms.booking.event.TicketConfirmedEvent;
 import com.mnms.booking.exception.BusinessException;
 import com.mnms.booking.exception.ErrorCode;
+import com.mnms.booking.repository.QrCodeRepository;
 import com.mnms.booking.repository.TicketRepository;
 import com.mnms.booking.util.CommonUtils;
 import com.mnms.booking.util.UserApiClient;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingCommandService {
     private final TicketRepository ticketRepository;
+    private final QrCodeRepository qrCodeRepository;
     private final EmailService emailService;
     private final CommonUtils commonUtils;
     private final UserApiClient userApiClient;
     private final BookingStatusService bookingStatusService;
     private final TempReservationService tempReservationService;
+    private final SeatInventoryService seatInventoryService;
+    private final WaitingService waitingService;
     private final ApplicationEventPublisher eventPublisher;
 
+    /// 좌석을 임시로 잡고 있는(만료 대상) 티켓 상태
+    private static final List<ReservationStatus> HOLD_STATUSES =
+            List.of(ReservationStatus.TEMP_RESERVED, ReservationStatus.PAYMENT_IN_PROGRESS);
+
+    /// 만료 가예매 정리 결과 (삭제한 티켓 / QR 수, 예매 페이지 자리 반환용 가예매 정보)
+    public record SweepResult(int tickets, int qrCodes, List<TempReservationService.Hold> holds) {}
+
 
     /// 1차: 가예매 - 임시 예약 (2차 예매하기 누르면 실행)
     @Transactional
     public String selectFestivalDate(BookingSelectRequestDTO request, Long userId) {
-        Festival festival = bookingStatusService.getFestivalOrThrow(request.getFestivalId());
+        FestivalCache.FestivalSnapshot festival = bookingStatusService.getFestivalOrThrow(request.getFestivalId());
         LocalDateTime performanceDate = request.getPerformanceDate();
 
+        waitingService.validateBookingUser(festival.festivalId(), performanceDate, String.valueOf(userId));
         bookingStatusService.validatePerformanceDate(festival, performanceDate);
         bookingStatusService.validateScheduleExists(festival, performanceDate);
-        bookingStatusService.recreateHold(festival, performanceDate, userId); // 가예매 상태인 티켓 모두 삭제
-        bookingStatusService.validateUserReservationLimit(userId, request, festival);
+        bookingStatusService.validateUserReservationLimit(request, festival);
+        int releasedCount = bookingStatusService.recreateHold(festival, performanceDate, userId); // 가예매 상태인 티켓 모두 삭제
+        // 1인 한도 + 잔여 좌석 확인 후 차감 (기존 가예매 매수는 상계, 롤백 시 복구)
+        seatInventoryService.reserve(festival, performanceDate, userId, request.getSelectedTicketCount(), releasedCount);
 
         Ticket ticket = Ticket.builder()
-                .festival(festival)
+                .festival(bookingStatusService.getFestivalReference(festival))
                 .userId(userId)
                 .reservationNumber(commonUtils.generateReservationNumber())
                 .selectedTicketCount(request.getSelectedTicketCount())
                 .performanceDate(performanceDate)
                 .reservationStatus(ReservationStatus.TEMP_RESERVED)
+                .holdExpiresAt(LocalDateTime.now().plusMinutes(tempReservationService.getTtlMinutes()))
                 .build();
 
         ticketRepository.save(ticket);
         // redis ttl : 1분 설정
-        tempReservationService.createTempReservation(ticket);
+        tempReservationService.createTempReservation(ticket, festival.festivalId());
         return ticket.getReservationNumber();
     }
 
@@ -62,36 +84,36 @@ public class BookingCommandService {
     @Transactional
     public void selectFestivalDelivery(BookingSelectDeliveryRequestDTO request, Long userId) {
         Ticket ticket = bookingStatusService.getTicketOrThrow(request.getFestivalId(), userId, request.getReservationNumber());
+        waitingService.validateBookingUser(request.getFestivalId(), ticket.getPerformanceDate(), String.valueOf(userId));
         TicketType type = bookingStatusService.parseDeliveryMethod(request.getDeliveryMethod());
         ticket.setDeliveryMethod(type);
         if(TicketType.PAPER.equals(type)){
             ticket.setAddress(request.getAddress());
             ticket.setDeliveryDate(bookingStatusService.calculateDeliveryDate(ticket, type));
         }
+        ticket.setHoldExpiresAt(LocalDateTime.now().plusMinutes(5));
         ticketRepository.save(ticket);
 
-        // redis ttl : 5분 설정
-        tempReservationService.refreshTempReservation(ticket.getReservationNumber(), 5);
+        // redis ttl : 5분 설정 (커밋 후 비동기)
+        eventPublisher.publishEvent(new TempReservationRefreshEvent(ticket.getReservationNumber(), 5));
     }
 
     /// 3차: 가예매 - 예약 - QR생성 (마지막 결제하기 눌렀을 때 실행)
     @Transactional
     public void reserveTicket(BookingRequestDTO request, Long userId) {
-        Festival festival = bookingStatusService.getFestivalOrThrow(request.getFestivalId());
-        Long selectedTicketCount = ticketRepository.findTicketCountByReservationNumber(request.getReservationNumber());
-
-        bookingStatusService.validateCapacity(festival, request, selectedTicketCount);
-
+        // 좌석은 1차 가예매 때 이미 차감됨
         Ticket ticket = bookingStatusService.getTicketByReservationNumberOrThrow(request.getReservationNumber());
+        waitingService.validateBookingUser(ticket.getFestival().getFestivalId(), ticket.getPerformanceDate(), String.valueOf(userId));
         ticket.setReservationStatus(ReservationStatus.PAYMENT_IN_PROGRESS);
         bookingStatusService.ensureDeliveryStepCompleted(ticket);
 
-        bookingStatusService.regenerateQrCodes(ticket, userId, festival);
+        bookingStatusService.regenerateQrCodes(ticket, userId, ticket.getFestival());
 
+        ticket.setHoldExpiresAt(LocalDateTime.now().plusMinutes(3));
         ticketRepository.save(ticket);
 
-        // redis ttl : 3분 설정 (예매 완료하면 ttl 바로 완료됨)
-        tempReservationService.refreshTempReservation(ticket.getReservationNumber(), 3);
+        // redis ttl : 3분 설정 (예매 완료하면 ttl 바로 완료됨, 커밋 후 비동기)
+        eventPublisher.publishEvent(new TempReservationRefreshEvent(ticket.getReservationNumber(), 3));
     }
 
 
@@ -101,8 +123,12 @@ public class BookingCommandService {
         Ticket ticket = bookingStatusService.getTicketByReservationNumberOrThrow(reservationNumber);
         ReservationStatus newStatus = bookingStatusService.determineReservationStatus(paymentStatus);
 
-        // 결제 상태 변경
-        bookingStatusService.updateTicketStatusIfNecessary(ticket, newStatus);
+        // 결제 상태 변경 (결제 실패 시 좌석 복구)
+        if (bookingStatusService.updateTicketStatusIfNecessary(ticket, newStatus)
+                && newStatus == ReservationStatus.CANCELED) {
+            seatInventoryService.release(ticket.getFestival().getFestivalId(), ticket.getPerformanceDate(),
+                    ticket.getUserId(), ticket.getSelectedTicketCount());
+        }
         eventPublisher.publishEvent(new TicketConfirmedEvent(TicketRequestDTO.fromEntity(ticket)));
     }
 
@@ -126,6 +152,60 @@ public class BookingCommandService {
         ticket.getQrCodes().clear();
         ticket.setReservationStatus(status);
         ticketRepository.save(ticket);
+
+        if (status == ReservationStatus.CANCELED) {
+            seatInventoryService.release(ticket.getFestival().getFestivalId(), ticket.getPerformanceDate(),
+                    ticket.getUserId(), ticket.getSelectedTicketCount());
+        }
+    }
+
+    /// 가예매 만료 - 만료 엔진이 선점한 예약번호 일괄 삭제 + 좌석 복구 (좌석 정보는 Redis 가예매 정보 사용)
+    /// @return 실제로 삭제한 가예매 (이미 확정/삭제된 건, 가예매 정보가 없는 건 제외)
+    @Transactional
+    public List<TempReservationService.Hold> expireHolds(List<String> reservationNumbers,
+                                                         Map<String, TempReservationService.Hold> holds) {
+        List<Object[]> rows = ticketRepository.findHoldIdsForUpdate(reservationNumbers, HOLD_STATUSES);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ticketIds = rows.stream().map(row -> (Long) row[0]).toList();
+        qrCodeRepository.deleteAllByTicketIdIn(ticketIds);
+        ticketRepository.deleteAllByIdIn(ticketIds);
+
+        List<TempReservationService.Hold> expired = rows.stream()
+                .map(row -> holds.get((String) row[1]))
+                .filter(Objects::nonNull)
+                .toList();
+        if (expired.size() < rows.size()) {
+            // 좌석은 다음 재고 대조에서 보정
+            log.warn("Expired {} holds without hold records", rows.size() - expired.size());
+        }
+        expired.forEach(hold -> seatInventoryService.release(
+                hold.festivalId(), hold.performanceDate(), hold.userId(), hold.count()));
+        return expired;
+    }
+
+    /// 가예매 만료 - Redis 만료 처리에서 빠진 행 정리 (hold_expires_at 인덱스로 chunkSize개씩)
+    @Transactional
+    public SweepResult sweepExpiredHolds(LocalDateTime cutoff, int chunkSize) {
+        List<Object[]> holds = ticketRepository.findExpiredHoldsForUpdate(cutoff, HOLD_STATUSES, PageRequest.of(0, chunkSize));
+        if (holds.isEmpty()) {
+            return new SweepResult(0, 0, List.of());
+        }
+
+        List<Long> ticketIds = holds.stream().map(row -> (Long) row[0]).toList();
+        int qrCodes = qrCodeRepository.deleteAllByTicketIdIn(ticketIds);
+        int tickets = ticketRepository.deleteAllByIdIn(ticketIds);
+
+        // [id, reservationNumber, festivalId, performanceDate, userId, selectedTicketCount]
+        List<TempReservationService.Hold> swept = holds.stream()
+                .map(row -> new TempReservationService.Hold(
+                        (String) row[1], (Long) row[4], (String) row[2], (LocalDateTime) row[3], (Integer) row[5]))
+                .toList();
+        swept.forEach(hold -> seatInventoryService.release(
+                hold.festivalId(), hold.performanceDate(), hold.userId(), hold.count()));
+        return new SweepResult(tickets, qrCodes, swept);
     }
 
     // 예매 완료 확인
@@ -1,6 +1,5 @@
 package com.mnms.booking.service;
 
-import com.mnms.booking.dto.request.BookingRequestDTO;
 import com.mnms.booking.dto.request.BookingSelectRequestDTO;
 import com.mnms.booking.dto.response.QrResponseDTO;
 import com.mnms.booking.dto.response.TicketStatusResponseDTO;
@@ -20,74 +19,39 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.TextStyle;
 import java.util.List;
-import java.util.Locale;
-import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingStatusService {
 
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     private static final int TEMP_RESERVATION_TTL_MINUTES = 1; // 가예매 유지 시간
 
     private final TicketRepository ticketRepository;
     private final QrCodeRepository qrCodeRepository;
     private final FestivalRepository festivalRepository;
+    private final FestivalCache festivalCache;
     private final QrCodeService qrCodeService;
     private final ThreadPoolTaskScheduler scheduler;
     private final SimpMessagingTemplate messagingTemplate;
 
     /// 검증
-    public void validateCapacity(Festival festival, BookingRequestDTO request, Long selectedTicketCount) {
-        int totalCount = ticketRepository.getTotalSelectedTicketCount(
-                request.getFestivalId(),
-                request.getPerformanceDate(),
-                List.of(ReservationStatus.CONFIRMED, ReservationStatus.PAYMENT_IN_PROGRESS)
-        );
-
-        if (totalCount + selectedTicketCount > festival.getAvailableNOP()) {
-            throw new BusinessException(ErrorCode.FESTIVAL_LIMIT_AVAILABLE_PEOPLE);
-        }
-    }
-
-    public void validatePerformanceDate(Festival festival, LocalDateTime performanceDate) {
-        LocalDate date = performanceDate.toLocalDate();
-        if (date.isBefore(festival.getFdfrom()) || date.isAfter(festival.getFdto())) {
+    public void validatePerformanceDate(FestivalCache.FestivalSnapshot festival, LocalDateTime performanceDate) {
+        if (!festival.isWithinPeriod(performanceDate.toLocalDate())) {
             throw new BusinessException(ErrorCode.FESTIVAL_INVALID_DATE);
         }
     }
 
-    public void validateScheduleExists(Festival festival, LocalDateTime performanceDate) {
-        String dayOfWeek = performanceDate.getDayOfWeek()
-                .getDisplayName(TextStyle.SHORT, Locale.ENGLISH)
-                .toUpperCase();
-
-        boolean exists = festival.getSchedules().stream()
-                .anyMatch(s -> s.getDayOfWeek().equalsIgnoreCase(dayOfWeek)
-                        && LocalTime.parse(s.getTime(), TIME_FORMATTER).equals(performanceDate.toLocalTime()));
-
-        if (!exists) throw new BusinessException(ErrorCode.FESTIVAL_INVALID_TIME);
+    /// 공연 일정 색인(ScheduleSlotIndex) 조회 1회
+    public void validateScheduleExists(FestivalCache.FestivalSnapshot festival, LocalDateTime performanceDate) {
+        if (!festival.hasSchedule(performanceDate)) throw new BusinessException(ErrorCode.FESTIVAL_INVALID_TIME);
     }
 
-    public void validateUserReservationLimit(Long userId, BookingSelectRequestDTO request, Festival festival) {
-        int selectTicketCount = request.getSelectedTicketCount();
-        if (festival.getMaxPurchase() < selectTicketCount){
-            throw new BusinessException(ErrorCode.TICKET_ALREADY_RESERVED);
-        }
-
-        LocalDateTime startDate = request.getPerformanceDate();
-        LocalDateTime endDate = startDate.plusSeconds(1);
-
-        Long alreadyReserved = ticketRepository.sumSelectedTicketCount(
-                userId, festival.getFestivalId(), startDate, endDate);
-        if (alreadyReserved + selectTicketCount > festival.getMaxPurchase()) {
+    /// 1회 선택 매수만 확인, 회차별 누적 한도는 SeatInventoryService.reserve에서 좌석 차감과 함께 확인
+    public void validateUserReservationLimit(BookingSelectRequestDTO request, FestivalCache.FestivalSnapshot festival) {
+        if (festival.maxPurchase() < request.getSelectedTicketCount()){
             throw new BusinessException(ErrorCode.TICKET_ALREADY_RESERVED);
         }
     }
@@ -99,26 +63,31 @@ public class BookingStatusService {
     }
 
     /// 기타
+    /// 매수만큼 QR 일괄 생성 (시퀀스 pooled id + JDBC batch → 매수와 무관하게 INSERT 왕복 수 일정)
     public void regenerateQrCodes(Ticket ticket, Long userId, Festival festival) {
+        List<QrCode> qrCodes = qrCodeService.generateQrCodeIds(ticket.getSelectedTicketCount()).stream()
+                .map(qrCodeId -> QrResponseDTO.create(userId, qrCodeId, festival, ticket).toEntity())
+                .toList();
+
         ticket.getQrCodes().clear();
-        ticket.getQrCodes().addAll(
-                IntStream.range(0, ticket.getSelectedTicketCount())
-                        .mapToObj(i -> createAndSaveQrCode(userId, festival, ticket))
-                        .toList()
-        );
+        ticket.getQrCodes().addAll(qrCodeRepository.saveAll(qrCodes));
     }
 
     public ReservationStatus determineReservationStatus(boolean paymentStatus) {
         return paymentStatus ? ReservationStatus.CONFIRMED : ReservationStatus.CANCELED;
     }
 
-    public void updateTicketStatusIfNecessary(Ticket ticket, ReservationStatus newStatus) {
+    /// @return 상태가 바뀌었으면 true
+    public boolean updateTicketStatusIfNecessary(Ticket ticket, ReservationStatus newStatus) {
         if (ticket.getReservationStatus() != ReservationStatus.CONFIRMED
                 && ticket.getReservationStatus() != ReservationStatus.CANCELED) {
             ticket.setReservationStatus(newStatus);
             ticket.setReservationDate(LocalDateTime.now());
+            ticket.setHoldExpiresAt(null);
             ticketRepository.save(ticket);
+            return true;
         }
+        return false;
     }
 
     // websocket -> 사용x
@@ -130,9 +99,13 @@ public class BookingStatusService {
         );
     }
 
-    public Festival getFestivalOrThrow(String festivalId) {
-        return festivalRepository.findByFestivalId(festivalId)
-                .orElseThrow(() -> new BusinessException(ErrorCode.FESTIVAL_NOT_FOUND));
+    public FestivalCache.FestivalSnapshot getFestivalOrThrow(String festivalId) {
+        return festivalCache.get(festivalId);
+    }
+
+    /// 티켓 연관관계용 엔티티 참조 (조회 쿼리 없음)
+    public Festival getFestivalReference(FestivalCache.FestivalSnapshot festival) {
+        return festivalRepository.getReferenceById(festival.id());
     }
 
     public Ticket getTicketOrThrow(String festivalId, Long userId, String reservationNumber) {
@@ -168,21 +141,20 @@ public class BookingStatusService {
     }
 
     /// Qr정보 생성
-    private QrCode createAndSaveQrCode(Long userId, Festival festival, Ticket ticket) {
-        // 중복 없는 QR 코드 ID 생성
-        String qrCodeId;
-        do {
-            qrCodeId = qrCodeService.generateQrCodeId();
-        } while (qrCodeRepository.existsByQrCodeId(qrCodeId));
-
-        QrCode qrCode = QrResponseDTO.create(userId, qrCodeId, festival, ticket).toEntity();
-        qrCodeRepository.save(qrCode);
-        return qrCode;
-    }
-
     ///  예매 시도 시, 가예매 상태 모두 지우기
-    public void recreateHold(Festival festival, LocalDateTime performanceDate, Long userId) {
-        List<Ticket> tempReservedTickets = ticketRepository.findTempReservedTickets(festival.getId(), performanceDate, userId, ReservationStatus.TEMP_RESERVED);
-        ticketRepository.deleteAllInBatch(tempReservedTickets);
+    ///  - 기존 가예매 행을 잠근 뒤 삭제 → 만료 처리/정리(sweep)가 같은 행을 동시에 지우며 좌석을 이중 반환하지 않음
+    /// @return 이번 트랜잭션이 실제로 삭제한 가예매 매수 (좌석은 이어지는 차감에서 상계)
+    public int recreateHold(FestivalCache.FestivalSnapshot festival, LocalDateTime performanceDate, Long userId) {
+        List<Object[]> holds = ticketRepository.findTempReservedHoldsForUpdate(festival.id(), performanceDate, userId, ReservationStatus.TEMP_RESERVED);
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = holds.stream().map(row -> (Long) row[0]).toList();
+        int deleted = ticketRepository.deleteAllByIdInAndReservationStatus(ids, ReservationStatus.TEMP_RESERVED);
+        if (deleted != ids.size()) {
+            // 일부를 다른 트랜잭션이 먼저 지움 → 어느 행인지 알 수 없으므로 상계하지 않음 (좌석 수 보정 주기에 맞춰짐)
+            return 0;
+        }
+        return holds.stream().mapToInt(row -> ((Number) row[1]).intValue()).sum();
     }
 }
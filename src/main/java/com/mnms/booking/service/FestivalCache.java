@@ -0,0 +1,158 @@
+package com.mnms.booking.service;
+
+import com.mnms.booking.dto.response.ScheduleResponseDTO;
+import com.mnms.booking.entity.Festival;
+import com.mnms.booking.exception.BusinessException;
+import com.mnms.booking.exception.ErrorCode;
+import com.mnms.booking.repository.FestivalRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// 공연 정보 read-through 캐시 (불변 snapshot)
+///  - 공연은 Kafka 이벤트(FestivalListener)로만 변경되므로 Create/Update/Delete 핸들러에서 무효화
+///  - 무효화는 Redis Pub/Sub으로 모든 노드에 전파, 메시지 유실 대비 TTL 만료도 함께 사용
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FestivalCache implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "festival_cache_invalidation";
+
+    private final FestivalRepository festivalRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Map<String, FestivalSnapshot> snapshots = new ConcurrentHashMap<>();
+    /// 공연별 무효화 횟수 - 조회 중에 무효화되면 읽어 온 snapshot을 캐시에 넣지 않음
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Value("${festival.cache-ttl-ms:60000}")
+    private long ttlMillis;
+
+    /// 예매 단계에서 쓰는 공연 정보 (엔티티 연관관계 대신 PK만 보관)
+    public record FestivalSnapshot(
+            Long id,
+            String festivalId,
+            String fname,
+            String posterFile,
+            Long organizer,
+            int ticketPick,
+            LocalDate fdfrom,
+            LocalDate fdto,
+            int maxPurchase,
+            int ticketPrice,
+            int availableNOP,
+            List<ScheduleResponseDTO> schedules,
+            ScheduleSlotIndex scheduleSlots,
+            long expiresAt
+    ) {
+        public boolean isWithinPeriod(LocalDate date) {
+            return !date.isBefore(fdfrom) && !date.isAfter(fdto);
+        }
+
+        public boolean hasSchedule(LocalDateTime performanceDate) {
+            return scheduleSlots.contains(performanceDate);
+        }
+    }
+
+    public FestivalSnapshot get(String festivalId) {
+        FestivalSnapshot snapshot = snapshots.get(festivalId);
+        if (snapshot != null && snapshot.expiresAt() > System.currentTimeMillis()) {
+            return snapshot;
+        }
+        AtomicLong version = versionOf(festivalId);
+        long loadedVersion = version.get();
+        FestivalSnapshot loaded = load(festivalId);
+        // 조회 도중 무효화됐으면 변경 전 데이터일 수 있으므로 이번 요청에만 사용
+        snapshots.compute(festivalId, (key, current) -> version.get() == loadedVersion ? loaded : current);
+        return loaded;
+    }
+
+    /// 이 노드 캐시 삭제 + 다른 노드에 전파 (트랜잭션 중이면 커밋 후)
+    public void invalidate(String festivalId) {
+        evict(festivalId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(festivalId);
+                    publishInvalidation(festivalId);
+                }
+            });
+        } else {
+            publishInvalidation(festivalId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String festivalId = new String(message.getBody(), StandardCharsets.UTF_8);
+        evict(festivalId);
+        log.debug("Festival cache invalidated: {}", festivalId);
+    }
+
+    /// version을 먼저 올린 뒤 삭제 → 진행 중인 조회 결과가 삭제 이후에 다시 들어오지 않음
+    private void evict(String festivalId) {
+        versionOf(festivalId).incrementAndGet();
+        snapshots.remove(festivalId);
+    }
+
+    private AtomicLong versionOf(String festivalId) {
+        return versions.computeIfAbsent(festivalId, key -> new AtomicLong());
+    }
+
+    private void publishInvalidation(String festivalId) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, festivalId);
+        } catch (RedisConnectionFailureException | RedisSystemException e) {
+            // 다른 노드는 TTL 만료 후 다시 읽음
+            log.warn("Failed to broadcast festival cache invalidation for {}: {}", festivalId, e.getMessage());
+        }
+    }
+
+    /// 일정까지 한 번에 조회 (fetch join)
+    private FestivalSnapshot load(String festivalId) {
+        Festival festival = festivalRepository.findWithSchedulesByFestivalId(festivalId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.FESTIVAL_NOT_FOUND));
+
+        List<ScheduleResponseDTO> schedules = festival.getSchedules().stream()
+                .map(s -> ScheduleResponseDTO.builder()
+                        .dayOfWeek(s.getDayOfWeek())
+                        .time(s.getTime())
+                        .build())
+                .toList();
+
+        return new FestivalSnapshot(
+                festival.getId(),
+                festival.getFestivalId(),
+                festival.getFname(),
+                festival.getPosterFile(),
+                festival.getOrganizer(),
+                festival.getTicketPick(),
+                festival.getFdfrom(),
+                festival.getFdto(),
+                festival.getMaxPurchase(),
+                festival.getTicketPrice(),
+                festival.getAvailableNOP(),
+                schedules,
+                ScheduleSlotIndex.of(festival.getSchedules()),
+                System.currentTimeMillis() + ttlMillis
+        );
+    }
+}
@@ -1,24 +1,25 @@
 package com.mnms.booking.service;
 
-import com.mnms.booking.entity.Festival;
 import com.mnms.booking.exception.BusinessException;
 import com.mnms.booking.exception.ErrorCode;
-import com.mnms.booking.repository.FestivalRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class FestivalService {
 
-    private final FestivalRepository festivalRepository;
+    private final FestivalCache festivalCache;
 
-    ///특정 festivalId에 해당하는 공연의 수용 인원을 조회
-    public int getCapacity(String festivalId) {
-        Festival festival = festivalRepository.findByFestivalId(festivalId)
-            .orElseThrow(() -> new BusinessException(ErrorCode.FESTIVAL_NOT_FOUND));
-        return festival.getAvailableNOP();
+    ///특정 festivalId에 해당하는 공연의 수용 인원을 조회 (캐시 적중 시 DB 조회 없음)
+    /// 대기열 진입 전 회차도 확인 (없는 회차로 대기열 키가 만들어지지 않도록)
+    public int getCapacity(String festivalId, LocalDateTime reservationDate) {
+        FestivalCache.FestivalSnapshot festival = festivalCache.get(festivalId);
+        if (!festival.hasSchedule(reservationDate)) {
+            throw new BusinessException(ErrorCode.FESTIVAL_INVALID_TIME);
+        }
+        return festival.availableNOP();
     }
-}
\ No newline at end of file
+}
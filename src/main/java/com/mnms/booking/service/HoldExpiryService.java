@@ -0,0 +1,121 @@
+package com.mnms.booking.service;
+
+import com.mnms.booking.enums.AdmissionWakeUpReason;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/// 가예매 만료 처리 (Redis keyspace 만료 알림 대체)
+///  - 만료 시각 ZSET(hold_deadlines)을 리더 노드 하나가 주기적으로 일괄 선점
+///  - 선점은 Lua로 꺼내면서 삭제 → 예약번호마다 한 번만 처리
+///  - 티켓/QR 일괄 삭제 + 좌석 복구 후 예매 페이지 자리를 회차·lane별로 한 번에 반환
+///  - Redis 쪽 만료 정보가 사라진 행은 hold_expires_at 기준 정리(sweep)로 회수
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldExpiryService {
+
+    private static final String LEADER_KEY = "hold_deadlines:leader";
+
+    private final TempReservationService tempReservationService;
+    private final BookingCommandService bookingCommandService;
+    private final WaitingService waitingService;
+    private final LeaderLeaseService leaderLeaseService;
+
+    @Value("${temp-reservation.expiry.poll-ms:1000}")
+    private long pollMillis;
+
+    @Value("${temp-reservation.expiry.batch-size:500}")
+    private int batchSize;
+
+    @Value("${temp-reservation.sweeper.grace-ms:60000}")
+    private long sweepGraceMillis;
+
+    @Value("${temp-reservation.sweeper.chunk-size:500}")
+    private int sweepChunkSize;
+
+    @Scheduled(fixedDelayString = "${temp-reservation.expiry.poll-ms:1000}")
+    public void expireHolds() {
+        try {
+            if (!leaderLeaseService.tryAcquireOrRenew(LEADER_KEY, Duration.ofMillis(pollMillis * 10))) {
+                return;
+            }
+            List<String> claimed;
+            do {
+                claimed = tempReservationService.claimExpired(System.currentTimeMillis(), batchSize);
+                if (!claimed.isEmpty()) {
+                    expireBatch(claimed);
+                }
+            } while (claimed.size() == batchSize);
+        } catch (Exception e) {
+            log.warn("Hold expiry failed: {}", e.getMessage());
+        }
+    }
+
+    /// 만료 시각 + 유예 시간이 지나도 남아 있는 가예매 정리 (chunk마다 트랜잭션 분리)
+    @Scheduled(fixedDelayString = "${temp-reservation.sweeper.interval-ms:60000}")
+    public void sweepStaleHolds() {
+        try {
+            if (!leaderLeaseService.tryAcquireOrRenew(LEADER_KEY, Duration.ofMillis(pollMillis * 10))) {
+                return;
+            }
+            LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(sweepGraceMillis));
+            int tickets = 0;
+            int qrCodes = 0;
+            BookingCommandService.SweepResult result;
+            do {
+                result = bookingCommandService.sweepExpiredHolds(cutoff, sweepChunkSize);
+                tickets += result.tickets();
+                qrCodes += result.qrCodes();
+                exitBookingPages(result.holds());
+            } while (result.tickets() == sweepChunkSize);
+
+            if (tickets > 0) {
+                log.warn("Swept {} stale holds ({} qr codes) expired before {}", tickets, qrCodes, cutoff);
+            }
+        } catch (Exception e) {
+            log.warn("Stale hold sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void expireBatch(List<String> reservationNumbers) {
+        List<TempReservationService.Hold> expired;
+        try {
+            Map<String, TempReservationService.Hold> holds = tempReservationService.getTempReservations(reservationNumbers);
+            expired = bookingCommandService.expireHolds(reservationNumbers, holds);
+        } catch (Exception e) {
+            // 트랜잭션 롤백 → 다음 주기에 다시 선점
+            tempReservationService.releaseClaimed(reservationNumbers);
+            throw e;
+        }
+        tempReservationService.deleteTempReservations(reservationNumbers);
+        log.info("Expired {} of {} claimed holds", expired.size(), reservationNumbers.size());
+        exitBookingPages(expired);
+    }
+
+    /// 공연/회차별로 모아서 예매 페이지 퇴장 처리 (만료 처리와 정리(sweep) 모두 같은 방식으로 자리 반환)
+    private void exitBookingPages(List<TempReservationService.Hold> holds) {
+        Map<HoldSlot, List<String>> usersBySlot = holds.stream()
+                .collect(Collectors.groupingBy(
+                        hold -> new HoldSlot(hold.festivalId(), hold.performanceDate()),
+                        Collectors.mapping(hold -> String.valueOf(hold.userId()), Collectors.toList())));
+        usersBySlot.forEach((slot, userIds) -> {
+            try {
+                waitingService.usersExitBookingPage(slot.festivalId(), slot.performanceDate(), userIds, AdmissionWakeUpReason.HOLD_EXPIRED);
+            } catch (Exception e) {
+                // 예매 페이지 자리는 heartbeat 미수신 퇴장(사용 시) 또는 키 TTL로 회수됨
+                log.warn("Failed to release booking page slots for {} {}: {}", slot.festivalId(), slot.performanceDate(), e.getMessage());
+            }
+        });
+    }
+
+    private record HoldSlot(String festivalId, LocalDateTime performanceDate) {}
+}
@@ -0,0 +1,89 @@
+package com.mnms.booking.service;
+
+import com.mnms.booking.exception.BusinessException;
+import com.mnms.booking.exception.ErrorCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+/// Redis lease 기반 리더 선출 : lease 키를 가진 노드 하나만 작업을 수행하고, 갱신이 끊기면 TTL 만료 후 다른 노드가 이어받음
+@Service
+@Slf4j
+public class LeaderLeaseService {
+
+    /// lease가 없으면 획득, 내 lease면 갱신
+    private static final String ACQUIRE_SCRIPT =
+            "local owner = redis.call('GET', KEYS[1]); " +
+                    "if not owner then " +
+                    "  redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]); " +
+                    "  return 1; " +
+                    "end; " +
+                    "if owner == ARGV[1] then " +
+                    "  redis.call('PEXPIRE', KEYS[1], ARGV[2]); " +
+                    "  return 1; " +
+                    "end; " +
+                    "return 0";
+
+    /// 내 lease일 때만 삭제
+    private static final String RELEASE_SCRIPT =
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+                    "  return redis.call('DEL', KEYS[1]); " +
+                    "end; " +
+                    "return 0";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final DefaultRedisScript<Long> acquireScript;
+    private final DefaultRedisScript<Long> releaseScript;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public LeaderLeaseService(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+
+        this.acquireScript = new DefaultRedisScript<>();
+        this.acquireScript.setScriptText(ACQUIRE_SCRIPT);
+        this.acquireScript.setResultType(Long.class);
+
+        this.releaseScript = new DefaultRedisScript<>();
+        this.releaseScript.setScriptText(RELEASE_SCRIPT);
+        this.releaseScript.setResultType(Long.class);
+    }
+
+    /**
+     * lease 획득 또는 갱신 시도
+     * @return true = 이 노드가 리더
+     */
+    public boolean tryAcquireOrRenew(String leaseKey, Duration leaseTtl) {
+        try {
+            Long result = stringRedisTemplate.execute(
+                    acquireScript,
+                    Collections.singletonList(leaseKey),
+                    nodeId,
+                    String.valueOf(leaseTtl.toMillis())
+            );
+            return result != null && result == 1;
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
+    }
+
+    /// 이 노드가 가진 lease 반납 (다른 노드가 바로 이어받을 수 있도록)
+    public void release(String leaseKey) {
+        try {
+            stringRedisTemplate.execute(releaseScript, Collections.singletonList(leaseKey), nodeId);
+        } catch (RedisConnectionFailureException | RedisSystemException e) {
+            log.warn("Failed to release lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+}
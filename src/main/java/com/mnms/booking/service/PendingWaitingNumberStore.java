@@ -0,0 +1,92 @@
+package com.mnms.booking.service;
+
+import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import com.mnms.booking.enums.WebSocketBrokerMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/// 연결되지 않은 대기자의 마지막 대기 순번만 보관 (사용자당 1건, 최대 인원·보관 시간 제한)
+///  - 이 노드로 /enter 한 사용자만 보관 (SIMPLE 모드는 모든 노드가 같은 메시지를 받으므로 다른 노드 사용자는 무시)
+///  - 보관 시간은 /enter 시점부터 계산, 순번이 덮어써져도 연장하지 않음 → 끝내 연결하지 않은 사용자도 TTL 후 제거
+///  - 등록 순서(insertion-order) LinkedHashMap → 앞쪽이 항상 가장 오래된 항목, 가득 차면 O(1)로 제거
+///  - 한계 (SIMPLE 모드) : /enter 와 WebSocket 연결이 다른 노드로 가면 보관된 순번은 전달되지 않음,
+///    연결된 노드에서는 다음 순번 알림(대기열 이동 또는 주기 알림) 때 첫 순번을 받음
+@Component
+public class PendingWaitingNumberStore {
+
+    /// dto = null : /enter 직후 아직 순번을 받지 못한 상태
+    private record Pending(WaitingNumberResponseDTO dto, long storedAt) {}
+
+    @Value("${waiting-queue.pending.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${waiting-queue.pending.ttl-ms:300000}")
+    private long ttlMillis;
+
+    /// RELAY 모드는 broker가 미연결 사용자 메시지를 처리하므로 보관하지 않음
+    @Value("${websocket.broker.mode:SIMPLE}")
+    private WebSocketBrokerMode brokerMode;
+
+    private final LinkedHashMap<String, Pending> latestByUser = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pending> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    /// 이 노드에서 대기열에 새로 등록된 사용자 (WebSocket 구독 전 순번을 받을 대상)
+    public synchronized void expect(String userId) {
+        if (brokerMode != WebSocketBrokerMode.SIMPLE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Pending current = latestByUser.get(userId);
+        if (current == null || isExpired(current, now)) {
+            // 만료된 항목은 지우고 다시 등록 (맨 뒤로 이동)
+            latestByUser.remove(userId);
+            latestByUser.put(userId, new Pending(null, now));
+        }
+    }
+
+    /// 이전 값은 덮어씀 (순번은 최신 값만 의미 있음), 이 노드 대상이 아니면 버림
+    ///  - 보관 시각(storedAt)과 등록 순서는 유지
+    public synchronized void put(WaitingNumberResponseDTO dto) {
+        Pending current = latestByUser.get(dto.getUserId());
+        if (current == null) {
+            return;
+        }
+        if (isExpired(current, System.currentTimeMillis())) {
+            latestByUser.remove(dto.getUserId());
+            return;
+        }
+        latestByUser.put(dto.getUserId(), new Pending(dto, current.storedAt()));
+    }
+
+    /// 꺼내면서 삭제 (만료되었거나 아직 받은 순번이 없으면 null)
+    public synchronized WaitingNumberResponseDTO take(String userId) {
+        Pending pending = latestByUser.remove(userId);
+        if (pending == null || isExpired(pending, System.currentTimeMillis())) {
+            return null;
+        }
+        return pending.dto();
+    }
+
+    /// 등록 순서 = 보관 시각 순서 → 앞에서부터 만료된 항목만 제거
+    @Scheduled(fixedDelayString = "${waiting-queue.pending.ttl-ms:300000}")
+    public synchronized void evictExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Pending> iterator = latestByUser.values().iterator();
+        while (iterator.hasNext() && isExpired(iterator.next(), now)) {
+            iterator.remove();
+        }
+    }
+
+    private boolean isExpired(Pending pending, long now) {
+        return now - pending.storedAt() > ttlMillis;
+    }
+}
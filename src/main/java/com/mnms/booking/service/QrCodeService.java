@@ -17,6 +17,8 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -41,6 +43,13 @@ public class QrCodeService {
         return sb.toString();
     }
 
+    /// QrCodeId count개 생성 (DB 중복 확인 없음, 중복은 qr_code_id unique 인덱스로 보장)
+    public List<String> generateQrCodeIds(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> generateQrCodeId())
+                .toList();
+    }
+
     /// QR IMG 조회
     public byte[] generateQrCodeImage(String qrCodeText, int width, int height) throws WriterException, IOException {
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
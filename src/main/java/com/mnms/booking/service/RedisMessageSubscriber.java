@@ -2,69 +2,91 @@ package com.mnms.booking.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import com.mnms.booking.util.WaitingNumberFrameCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.messaging.simp.user.SimpSession;
-import org.springframework.messaging.simp.user.SimpUser;
-import org.springframework.messaging.simp.user.SimpUserRegistry;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
-@Transactional
-public class RedisMessageSubscriber {
+public class RedisMessageSubscriber implements MessageListener {
+
+    private static final String WAITING_NUMBER_DESTINATION = "/queue/waitingNumber";
 
     private final SimpMessagingTemplate messagingTemplate; // WebSocket 메시지 전송
     private final ObjectMapper objectMapper; // JSON 파싱을 위한 ObjectMapper
-    private final SimpUserRegistry simpUserRegistry;
-
-
-    // 유저별 대기 메시지 큐
-    private final Map<String, Queue<WaitingNumberResponseDTO>> pendingMessages = new ConcurrentHashMap<>();
+    private final WaitingSessionRegistry waitingSessionRegistry;
+    private final PendingWaitingNumberStore pendingWaitingNumberStore; // 미연결 대기자의 마지막 순번
 
 
     // Redis로 메시지 수신할 때 호출됨
-    public void onMessage(String message, String channel) {
-        printConnectedUsers();
-
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] body = message.getBody();
         try {
-            WaitingNumberResponseDTO dto = objectMapper.readValue(message, WaitingNumberResponseDTO.class);
-
-            // 연결된 유저인지 확인
-            if (isUserConnected(dto.getUserId())) {
-                messagingTemplate.convertAndSendToUser(dto.getUserId(), "/queue/waitingNumber", dto);
-            } else {
-                pendingMessages.computeIfAbsent(dto.getUserId(), k -> new ConcurrentLinkedQueue<>()).add(dto);
+            // 바이너리 프레임: 묶음을 이 노드에서 사용자별로 나눠 한 번에 전달 (DTO는 STOMP 전송 직전에만 생성)
+            if (WaitingNumberFrameCodec.isFrame(body)) {
+                int count = WaitingNumberFrameCodec.decode(body, (userId, waitingNumber, joinSequence, estimatedWaitSeconds, pollIntervalMillis, immediateEntry) ->
+                        deliver(WaitingNumberResponseDTO.builder()
+                                .userId(userId)
+                                .waitingNumber(waitingNumber)
+                                .joinSequence(joinSequence)
+                                .estimatedWaitSeconds(estimatedWaitSeconds)
+                                .pollIntervalMillis(pollIntervalMillis)
+                                .immediateEntry(immediateEntry)
+                                .build()));
+                log.debug("Delivered block of {} waiting numbers", count);
+                return;
             }
+
+            deliver(objectMapper.readValue(new String(body, StandardCharsets.UTF_8), WaitingNumberResponseDTO.class));
         } catch (Exception e) {
             log.error("예외 발생: {}", e.getMessage(), e);
         }
     }
 
-    private boolean isUserConnected(String userId) {
-        return simpUserRegistry.getUser(userId) != null;
+    /// 이 노드의 세션마다 1건씩 전송 (묶음 전송 없음)
+    private void deliver(WaitingNumberResponseDTO dto) {
+        Set<String> sessionIds = waitingSessionRegistry.getSessionIds(dto.getUserId());
+        if (sessionIds.isEmpty()) {
+            pendingWaitingNumberStore.put(dto);
+            return;
+        }
+        for (String sessionId : sessionIds) {
+            sendToSession(sessionId, dto);
+        }
+    }
+
+    /// 연결 전에 받아둔 마지막 순번 전달 (WaitingSubscriptionInterceptor : 구독 등록 직후 호출)
+    public void flushPending(String userId, String sessionId) {
+        WaitingNumberResponseDTO pending = pendingWaitingNumberStore.take(userId);
+        if (pending != null) {
+            sendToSession(sessionId, pending);
+        }
     }
 
-    // 디버깅용 : 추후 삭제
-    private void printConnectedUsers() {
-        Collection<SimpUser> users = simpUserRegistry.getUsers();
-        log.info("Connected users count: {}", users.size());
+    /// 사용자 목적지로 전송, 대상 = sessionId 헤더의 세션 하나
+    ///  - 사용자 이름 자리에 sessionId를 넣으면 UserDestinationResolver가 SimpUserRegistry 조회 없이 해당 세션으로 변환
+    ///  - 세션 목적지 형식과 broker 종류(SIMPLE/RELAY)는 resolver·broker 설정을 따름
+    private void sendToSession(String sessionId, WaitingNumberResponseDTO dto) {
+        messagingTemplate.convertAndSendToUser(sessionId, WAITING_NUMBER_DESTINATION, dto, sessionHeaders(sessionId));
+    }
 
-        for (SimpUser user : users) {
-            log.info("User name (Principal.name): {}", user.getName());
-            for (SimpSession session : user.getSessions()) {
-                log.info("  Session ID: {}", session.getId());
-                log.info("  Session Principal: {}", session.getUser().getName());
-            }
-        }
+    private static MessageHeaders sessionHeaders(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.mnms.booking.service;
+
+import com.mnms.booking.entity.Schedule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+
+/// 공연 일정 (요일, 시작 분) 색인 - 공연 정보 snapshot마다 한 번만 생성, 조회는 비트 1개 확인
+///  bit = (요일 - 1) × 1440 + 시작 시각(분)
+@Slf4j
+public final class ScheduleSlotIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final BitSet slots;
+
+    private ScheduleSlotIndex(BitSet slots) {
+        this.slots = slots;
+    }
+
+    /// Schedule.dayOfWeek = "MON" ~ "SUN", Schedule.time = "HH:mm"
+    ///  - 형식이 잘못된 일정 행은 건너뜀 (행 하나 때문에 공연 전체 snapshot 생성이 실패하지 않도록)
+    public static ScheduleSlotIndex of(List<Schedule> schedules) {
+        BitSet slots = new BitSet(7 * MINUTES_PER_DAY);
+        if (schedules == null) {
+            return new ScheduleSlotIndex(slots);
+        }
+        for (Schedule schedule : schedules) {
+            if (schedule == null || schedule.getDayOfWeek() == null || schedule.getTime() == null) {
+                log.warn("Skipping incomplete schedule row: {}", schedule == null ? null : schedule.getScheduleId());
+                continue;
+            }
+            try {
+                DayOfWeek dayOfWeek = parseDayOfWeek(schedule.getDayOfWeek());
+                LocalTime time = LocalTime.parse(schedule.getTime(), TIME_FORMATTER);
+                slots.set(bitIndex(dayOfWeek, time.getHour() * 60 + time.getMinute()));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                log.warn("Skipping invalid schedule row {} (dayOfWeek={}, time={}): {}",
+                        schedule.getScheduleId(), schedule.getDayOfWeek(), schedule.getTime(), e.getMessage());
+            }
+        }
+        return new ScheduleSlotIndex(slots);
+    }
+
+    /// 초 단위까지 일치해야 함 (기존 LocalTime 비교와 동일)
+    public boolean contains(LocalDateTime performanceDate) {
+        if (performanceDate.getSecond() != 0 || performanceDate.getNano() != 0) {
+            return false;
+        }
+        int minuteOfDay = performanceDate.getHour() * 60 + performanceDate.getMinute();
+        return slots.get(bitIndex(performanceDate.getDayOfWeek(), minuteOfDay));
+    }
+
+    private static int bitIndex(DayOfWeek dayOfWeek, int minuteOfDay) {
+        return (dayOfWeek.getValue() - 1) * MINUTES_PER_DAY + minuteOfDay;
+    }
+
+    private static DayOfWeek parseDayOfWeek(String code) {
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (dayOfWeek.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).equalsIgnoreCase(code)) {
+                return dayOfWeek;
+            }
+        }
+        throw new IllegalArgumentException("Unknown schedule day of week: " + code);
+    }
+}
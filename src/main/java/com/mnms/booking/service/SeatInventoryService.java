@@ -0,0 +1,352 @@
+package com.mnms.booking.service;
+
+import com.mnms.booking.enums.ReservationStatus;
+import com.mnms.booking.exception.BusinessException;
+import com.mnms.booking.exception.ErrorCode;
+import com.mnms.booking.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/// 공연/회차별 잔여 좌석 + 사용자별 점유 매수 (Redis)
+///  - 가예매(1차) 시점에 차감, 만료/재선택/결제 실패/취소 시 복구
+///  - 키가 없으면 MariaDB 집계로 초기화, 주기적으로 MariaDB와 대조해 보정
+@Slf4j
+@Service
+public class SeatInventoryService {
+
+    private static final String INVENTORY_KEY = "seat_inventory";
+    private static final String PURCHASES_KEY = "seat_purchases";
+    private static final String INDEX_KEY = "seat_inventory_index";
+    private static final String RECONCILE_LEADER_KEY = "seat_inventory:reconcile:leader";
+    /// 구매자가 없어도 초기화 여부를 알 수 있도록 두는 필드
+    private static final String SEEDED_FIELD = "_";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    /// 좌석을 점유하는 티켓 상태
+    private static final List<ReservationStatus> HOLDING_STATUSES = List.of(
+            ReservationStatus.TEMP_RESERVED,
+            ReservationStatus.PAYMENT_IN_PROGRESS,
+            ReservationStatus.CONFIRMED
+    );
+
+    private static final long NOT_SEEDED = -2;
+    private static final long SOLD_OUT = -1;
+    private static final long LIMIT_EXCEEDED = -3;
+
+    /// 한도/잔여 확인 후 좌석 차감 + 사용자 매수 증가 (같은 회차 재선택이면 기존 가예매 매수만큼 상계)
+    /// KEYS: 잔여 좌석, 사용자별 매수 / ARGV: userId, 요청 매수, 상계 매수, 1인 한도
+    /// (-2: 키 없음, -1: 잔여 부족, -3: 한도 초과, 그 외: 차감 후 잔여)
+    private static final String RESERVE_SCRIPT =
+            "local remaining = redis.call('GET', KEYS[1]); " +
+                    "if not remaining or redis.call('EXISTS', KEYS[2]) == 0 then return -2; end; " +
+                    "local count = tonumber(ARGV[2]); " +
+                    "local released = tonumber(ARGV[3]); " +
+                    "local bought = tonumber(redis.call('HGET', KEYS[2], ARGV[1]) or '0'); " +
+                    "if bought - released + count > tonumber(ARGV[4]) then return -3; end; " +
+                    "if tonumber(remaining) + released < count then return -1; end; " +
+                    "redis.call('HINCRBY', KEYS[2], ARGV[1], count - released); " +
+                    "return redis.call('DECRBY', KEYS[1], count - released)";
+
+    /// 좌석 복구 + 사용자 매수 감소 (음수면 반대로 재차감), 키가 없으면 다음 초기화 때 DB 기준으로 다시 계산됨
+    private static final String ADJUST_SCRIPT =
+            "local delta = tonumber(ARGV[2]); " +
+                    "if redis.call('EXISTS', KEYS[1]) == 1 then redis.call('INCRBY', KEYS[1], delta); end; " +
+                    "if redis.call('EXISTS', KEYS[2]) == 1 and redis.call('HINCRBY', KEYS[2], ARGV[1], -delta) <= 0 then " +
+                    "  redis.call('HDEL', KEYS[2], ARGV[1]); " +
+                    "end; " +
+                    "return 1";
+
+    /// 없는 키만 초기화 + 공연 종료 후 만료
+    /// ARGV: 잔여 좌석, 만료 시각(ms), userId, 매수, userId, 매수 ...
+    private static final String SEED_SCRIPT =
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+                    "  redis.call('SET', KEYS[1], ARGV[1], 'PXAT', ARGV[2]); " +
+                    "end; " +
+                    "if redis.call('EXISTS', KEYS[2]) == 0 then " +
+                    "  redis.call('HSET', KEYS[2], '" + SEEDED_FIELD + "', 0); " +
+                    "  for i = 3, #ARGV, 2 do redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1]); end; " +
+                    "  redis.call('PEXPIREAT', KEYS[2], ARGV[2]); " +
+                    "end; " +
+                    "return 1";
+
+    /// 대조 시점에 읽은 값에서 바뀌지 않았을 때만 보정
+    private static final String RECONCILE_INVENTORY_SCRIPT =
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0; end; " +
+                    "redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL'); " +
+                    "return 1";
+
+    /// ARGV: userId, 읽은 값('' = 없음), 보정 값
+    private static final String RECONCILE_PURCHASES_SCRIPT =
+            "if (redis.call('HGET', KEYS[1], ARGV[1]) or '') ~= ARGV[2] then return 0; end; " +
+                    "if tonumber(ARGV[3]) <= 0 then redis.call('HDEL', KEYS[1], ARGV[1]); " +
+                    "else redis.call('HSET', KEYS[1], ARGV[1], ARGV[3]); end; " +
+                    "return 1";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TicketRepository ticketRepository;
+    private final FestivalCache festivalCache;
+    private final LeaderLeaseService leaderLeaseService;
+    private final DefaultRedisScript<Long> reserveScript;
+    private final DefaultRedisScript<Long> adjustScript;
+    private final DefaultRedisScript<Long> seedScript;
+    private final DefaultRedisScript<Long> reconcileInventoryScript;
+    private final DefaultRedisScript<Long> reconcilePurchasesScript;
+
+    /// 직전 대조에서 본 "늦게 맞춰질 수 있는" 차이 (키 → 그때 읽은 Redis 값), 다음 대조에서도 같으면 보정
+    /// reconcile()은 스케줄러 스레드 하나에서만 실행됨
+    private Map<String, String> pendingDrifts = new HashMap<>();
+
+    @Value("${seat-inventory.reconcile-interval-ms:60000}")
+    private long reconcileIntervalMillis;
+
+    public SeatInventoryService(StringRedisTemplate stringRedisTemplate,
+                                TicketRepository ticketRepository,
+                                FestivalCache festivalCache,
+                                LeaderLeaseService leaderLeaseService) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ticketRepository = ticketRepository;
+        this.festivalCache = festivalCache;
+        this.leaderLeaseService = leaderLeaseService;
+        this.reserveScript = longScript(RESERVE_SCRIPT);
+        this.adjustScript = longScript(ADJUST_SCRIPT);
+        this.seedScript = longScript(SEED_SCRIPT);
+        this.reconcileInventoryScript = longScript(RECONCILE_INVENTORY_SCRIPT);
+        this.reconcilePurchasesScript = longScript(RECONCILE_PURCHASES_SCRIPT);
+    }
+
+    /**
+     * 1인 한도 + 잔여 좌석 확인 후 차감 (한 번의 Lua 실행)
+     * 트랜잭션 중이면 롤백 시 자동 복구
+     * @param releasedCount 같은 트랜잭션에서 삭제한 이 사용자의 기존 가예매 매수 (커밋 전이라도 상계)
+     */
+    public void reserve(FestivalCache.FestivalSnapshot festival, LocalDateTime performanceDate,
+                        Long userId, int count, int releasedCount) {
+        List<String> keys = getKeys(festival.festivalId(), performanceDate);
+        String user = String.valueOf(userId);
+        Object[] args = {user, String.valueOf(count), String.valueOf(releasedCount), String.valueOf(festival.maxPurchase())};
+
+        long result = execute(reserveScript, keys, args);
+        if (result == NOT_SEEDED) {
+            seed(festival, performanceDate);
+            result = execute(reserveScript, keys, args);
+        }
+        if (result == LIMIT_EXCEEDED) {
+            throw new BusinessException(ErrorCode.TICKET_ALREADY_RESERVED);
+        }
+        if (result == SOLD_OUT || result == NOT_SEEDED) {
+            throw new BusinessException(ErrorCode.FESTIVAL_LIMIT_AVAILABLE_PEOPLE);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        adjustNow(keys, user, count - releasedCount);
+                    }
+                }
+            });
+        }
+    }
+
+    /// 좌석 복구 + 사용자 매수 감소 (트랜잭션 중이면 커밋 후)
+    public void release(String festivalId, LocalDateTime performanceDate, Long userId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        List<String> keys = getKeys(festivalId, performanceDate);
+        String user = String.valueOf(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adjustNow(keys, user, count);
+                }
+            });
+        } else {
+            adjustNow(keys, user, count);
+        }
+    }
+
+    /// MariaDB와 대조
+    ///  - 잔여 좌석이 DB보다 많거나 사용자 매수가 DB보다 적으면 초과 판매 위험 → 즉시 보정
+    ///  - 반대 방향은 커밋 전 가예매일 수 있음 → 다음 대조에서도 같은 값일 때 보정
+    @Scheduled(fixedDelayString = "${seat-inventory.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        Map<String, String> previousDrifts = pendingDrifts;
+        pendingDrifts = new HashMap<>();
+        try {
+            if (!leaderLeaseService.tryAcquireOrRenew(RECONCILE_LEADER_KEY, Duration.ofMillis(reconcileIntervalMillis * 2))) {
+                return;
+            }
+            Set<String> members = stringRedisTemplate.opsForSet().members(INDEX_KEY);
+            if (members == null) {
+                return;
+            }
+            members.forEach(member -> reconcileMember(member, previousDrifts));
+        } catch (Exception e) {
+            log.warn("Seat inventory reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void reconcileMember(String member, Map<String, String> previousDrifts) {
+        int separator = member.lastIndexOf(':');
+        String festivalId = member.substring(0, separator);
+        LocalDateTime performanceDate = LocalDateTime.parse(member.substring(separator + 1), DATE_FORMAT);
+        List<String> keys = getKeys(festivalId, performanceDate);
+
+        String current = stringRedisTemplate.opsForValue().get(keys.get(0));
+        if (current == null) {
+            // 만료(공연 종료) 또는 삭제된 회차
+            stringRedisTemplate.delete(keys);
+            stringRedisTemplate.opsForSet().remove(INDEX_KEY, member);
+            return;
+        }
+
+        FestivalCache.FestivalSnapshot festival;
+        try {
+            festival = festivalCache.get(festivalId);
+        } catch (BusinessException e) {
+            // 삭제된 공연
+            stringRedisTemplate.delete(keys);
+            stringRedisTemplate.opsForSet().remove(INDEX_KEY, member);
+            return;
+        }
+
+        Map<String, Long> expectedPurchases = loadPurchases(festivalId, performanceDate);
+        long expected = calculateRemaining(festival, expectedPurchases);
+        long actual = Long.parseLong(current);
+        if (actual != expected && shouldCorrect(keys.get(0), current, actual > expected, previousDrifts)) {
+            Long corrected = stringRedisTemplate.execute(
+                    reconcileInventoryScript, keys.subList(0, 1), current, String.valueOf(expected));
+            if (corrected != null && corrected == 1) {
+                log.warn("Seat inventory corrected: {} {} -> {}", keys.get(0), actual, expected);
+            }
+        }
+
+        Map<Object, Object> purchases = stringRedisTemplate.opsForHash().entries(keys.get(1));
+        if (purchases.isEmpty()) {
+            return;
+        }
+        Set<String> users = new HashSet<>(expectedPurchases.keySet());
+        purchases.keySet().forEach(field -> users.add((String) field));
+        users.remove(SEEDED_FIELD);
+        for (String user : users) {
+            String bought = (String) purchases.get(user);
+            long boughtCount = bought == null ? 0 : Long.parseLong(bought);
+            long expectedCount = expectedPurchases.getOrDefault(user, 0L);
+            if (boughtCount == expectedCount
+                    || !shouldCorrect(keys.get(1) + ":" + user, String.valueOf(boughtCount), boughtCount < expectedCount, previousDrifts)) {
+                continue;
+            }
+            Long corrected = stringRedisTemplate.execute(
+                    reconcilePurchasesScript, keys.subList(1, 2),
+                    user, bought == null ? "" : bought, String.valueOf(expectedCount));
+            if (corrected != null && corrected == 1) {
+                log.warn("Seat purchases corrected: {} user {} {} -> {}", keys.get(1), user, boughtCount, expectedCount);
+            }
+        }
+    }
+
+    /// 위험 방향이면 바로, 아니면 직전 대조에서도 같은 값이었을 때만 보정
+    private boolean shouldCorrect(String driftKey, String current, boolean immediate,
+                                  Map<String, String> previousDrifts) {
+        if (immediate || current.equals(previousDrifts.get(driftKey))) {
+            return true;
+        }
+        pendingDrifts.put(driftKey, current);
+        return false;
+    }
+
+    /// DB 집계로 초기화 (다른 노드가 먼저 초기화했으면 그 값 유지)
+    private void seed(FestivalCache.FestivalSnapshot festival, LocalDateTime performanceDate) {
+        List<String> keys = getKeys(festival.festivalId(), performanceDate);
+        Map<String, Long> purchases = loadPurchases(festival.festivalId(), performanceDate);
+        long expireAt = performanceDate.plusDays(1).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        List<String> args = new ArrayList<>(2 + purchases.size() * 2);
+        args.add(String.valueOf(calculateRemaining(festival, purchases)));
+        args.add(String.valueOf(expireAt));
+        purchases.forEach((user, count) -> {
+            args.add(user);
+            args.add(String.valueOf(count));
+        });
+        execute(seedScript, keys, args.toArray());
+
+        try {
+            stringRedisTemplate.opsForSet().add(INDEX_KEY, toIndexMember(festival.festivalId(), performanceDate));
+        } catch (RedisConnectionFailureException | RedisSystemException e) {
+            log.warn("Failed to index seat inventory {}: {}", keys.get(0), e.getMessage());
+        }
+    }
+
+    /// userId → 점유 매수 (쿼리 1회로 잔여 좌석도 함께 계산)
+    private Map<String, Long> loadPurchases(String festivalId, LocalDateTime performanceDate) {
+        Map<String, Long> purchases = new HashMap<>();
+        for (Object[] row : ticketRepository.sumSelectedTicketCountGroupByUser(festivalId, performanceDate, HOLDING_STATUSES)) {
+            purchases.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
+        }
+        return purchases;
+    }
+
+    private long calculateRemaining(FestivalCache.FestivalSnapshot festival, Map<String, Long> purchases) {
+        long held = purchases.values().stream().mapToLong(Long::longValue).sum();
+        return Math.max(0, festival.availableNOP() - held);
+    }
+
+    private void adjustNow(List<String> keys, String user, int delta) {
+        try {
+            stringRedisTemplate.execute(adjustScript, keys, user, String.valueOf(delta));
+        } catch (RedisConnectionFailureException | RedisSystemException e) {
+            // 다음 대조에서 보정
+            log.warn("Failed to adjust seat inventory {} user {} ({}): {}", keys.get(0), user, delta, e.getMessage());
+        }
+    }
+
+    private long execute(DefaultRedisScript<Long> script, List<String> keys, Object... args) {
+        try {
+            Long result = stringRedisTemplate.execute(script, keys, args);
+            return result != null ? result : NOT_SEEDED;
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
+    }
+
+    /// 잔여 좌석, 사용자별 매수 : 대기열 키와 같은 hash tag 형식 (공연:회차) → 같은 slot에서 한 번에 처리
+    private List<String> getKeys(String festivalId, LocalDateTime performanceDate) {
+        String tag = ":{" + toIndexMember(festivalId, performanceDate) + "}";
+        return List.of(INVENTORY_KEY + tag, PURCHASES_KEY + tag);
+    }
+
+    private String toIndexMember(String festivalId, LocalDateTime performanceDate) {
+        return festivalId + ":" + performanceDate.format(DATE_FORMAT);
+    }
+
+    private static DefaultRedisScript<Long> longScript(String text) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptText(text);
+        script.setResultType(Long.class);
+        return script;
+    }
+}
@@ -1,48 +1,187 @@
 package com.mnms.booking.service;
 
 import com.mnms.booking.entity.Ticket;
-import lombok.RequiredArgsConstructor;
+import com.mnms.booking.exception.BusinessException;
+import com.mnms.booking.exception.ErrorCode;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Service
-@RequiredArgsConstructor
 public class TempReservationService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
     private static final String PREFIX = "TEMP_RESERVATION:";
+    /// 가예매 만료 시각 (member = 예약번호, score = 만료 시각 ms)
+    private static final String DEADLINES_KEY = "hold_deadlines";
 
+    private static final String USER_FIELD = "u";
+    private static final String FESTIVAL_FIELD = "f";
+    private static final String PERFORMANCE_DATE_FIELD = "d";
+    private static final String COUNT_FIELD = "c";
+
+    /// 만료된 가예매를 꺼내면서 삭제 → 여러 노드가 동시에 실행해도 예약번호마다 한 번만 반환
+    private static final String CLAIM_SCRIPT =
+            "local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]); " +
+                    "if #due > 0 then redis.call('ZREM', KEYS[1], unpack(due)); end; " +
+                    "return due";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> claimScript;
+
+    @Getter
     @Value("${temp-reservation.ttl-minutes:1}")
     private long ttlMinutes;
 
-    // 2차 예매하기 누르면 실행
-    public void createTempReservation(Ticket ticket) {
+    /// 만료 처리(선점) 전에 가예매 정보가 먼저 사라지지 않도록 만료 시각보다 더 보관
+    @Value("${temp-reservation.sweeper.grace-ms:60000}")
+    private long recordGraceMillis;
+
+    /// 가예매 정보 (만료 시 DB 조회 없이 좌석/예매 페이지 자리 반환에 사용)
+    public record Hold(String reservationNumber, Long userId, String festivalId, LocalDateTime performanceDate, int count) {}
+
+    public TempReservationService(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+
+        this.claimScript = new DefaultRedisScript<>();
+        this.claimScript.setScriptText(CLAIM_SCRIPT);
+        this.claimScript.setResultType(List.class);
+    }
+
+    // 2차 예매하기 누르면 실행 (festival은 프록시라 festivalId를 따로 받음)
+    public void createTempReservation(Ticket ticket, String festivalId) {
         String key = PREFIX + ticket.getReservationNumber();
-        redisTemplate.opsForValue().set(key, ticket, ttlMinutes, TimeUnit.MINUTES);
+        Map<String, String> fields = Map.of(
+                USER_FIELD, String.valueOf(ticket.getUserId()),
+                FESTIVAL_FIELD, festivalId,
+                PERFORMANCE_DATE_FIELD, ticket.getPerformanceDate().toString(),
+                COUNT_FIELD, String.valueOf(ticket.getSelectedTicketCount())
+        );
+        long deadline = deadlineAfter(ttlMinutes);
+
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForHash().putAll(key, fields);
+                ops.expire(key, recordTtlMillis(ttlMinutes), TimeUnit.MILLISECONDS);
+                ops.opsForZSet().add(DEADLINES_KEY, ticket.getReservationNumber(), deadline);
+                return null;
+            }
+        });
     }
 
-    // 갱신 - refresh ttl 각자 설정
-    public void refreshTempReservation(String reservationNumber, long ttlMinutes) {
-        String key = PREFIX + reservationNumber;
-        Boolean exists = redisTemplate.hasKey(key);
-        if (Boolean.TRUE.equals(exists)) {
-            redisTemplate.expire(key, ttlMinutes, TimeUnit.MINUTES);
-        }
+    /**
+     * 갱신 - refresh ttl 각자 설정 (만료 시각 ZADD XX + 가예매 정보 PEXPIRE를 pipeline 1회로)
+     * 두 키는 Redis Cluster slot이 달라 Lua 하나로 묶지 않음
+     * @return false = 이미 만료 처리(선점)되었거나 가예매 정보가 없음
+     */
+    public boolean refreshTempReservation(String reservationNumber, long ttlMinutes) {
+        byte[] deadlinesKey = DEADLINES_KEY.getBytes(StandardCharsets.UTF_8);
+        byte[] member = reservationNumber.getBytes(StandardCharsets.UTF_8);
+        byte[] holdKey = (PREFIX + reservationNumber).getBytes(StandardCharsets.UTF_8);
+        long deadline = deadlineAfter(ttlMinutes);
+
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zAdd(deadlinesKey, deadline, member, RedisZSetCommands.ZAddArgs.ifExists().ch());
+            connection.keyCommands().pExpire(holdKey, recordTtlMillis(ttlMinutes));
+            return null;
+        });
+        // [만료 목록에 남아 있어 갱신됨, 가예매 정보 TTL 연장됨]
+        return Boolean.TRUE.equals(results.get(0)) && Boolean.TRUE.equals(results.get(1));
     }
 
-    // 조회
-    public Optional<Ticket> getTempReservation(String reservationNumber) {
-        String key = PREFIX + reservationNumber;
-        Ticket ticket = (Ticket) redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(ticket);
+    /// 여러 건 조회 (pipeline 1회), 정보가 없는 예약번호는 결과에서 빠짐
+    public Map<String, Hold> getTempReservations(List<String> reservationNumbers) {
+        List<Object> records = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                reservationNumbers.forEach(reservationNumber -> ops.opsForHash().entries(PREFIX + reservationNumber));
+                return null;
+            }
+        });
+
+        Map<String, Hold> holds = new HashMap<>();
+        for (int i = 0; i < reservationNumbers.size(); i++) {
+            Map<?, ?> fields = (Map<?, ?>) records.get(i);
+            if (fields == null || fields.isEmpty()) {
+                continue;
+            }
+            String reservationNumber = reservationNumbers.get(i);
+            holds.put(reservationNumber, new Hold(
+                    reservationNumber,
+                    Long.valueOf((String) fields.get(USER_FIELD)),
+                    (String) fields.get(FESTIVAL_FIELD),
+                    LocalDateTime.parse((String) fields.get(PERFORMANCE_DATE_FIELD)),
+                    Integer.parseInt((String) fields.get(COUNT_FIELD))
+            ));
+        }
+        return holds;
     }
 
     // 삭제
     public void deleteTempReservation(String reservationNumber) {
-        redisTemplate.delete(PREFIX + reservationNumber);
+        stringRedisTemplate.delete(PREFIX + reservationNumber);
+        stringRedisTemplate.opsForZSet().remove(DEADLINES_KEY, reservationNumber);
+    }
+
+    /// 만료 처리가 끝난 가예매 정보 일괄 삭제
+    public void deleteTempReservations(List<String> reservationNumbers) {
+        stringRedisTemplate.delete(reservationNumbers.stream().map(reservationNumber -> PREFIX + reservationNumber).toList());
+    }
+
+    /**
+     * 만료 시각이 지난 가예매 예약번호를 최대 limit개 선점
+     * 선점한 예약번호는 만료 목록에서 빠지므로 다른 노드/다음 주기에 다시 나오지 않음
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> claimExpired(long now, int limit) {
+        try {
+            List<String> due = stringRedisTemplate.execute(
+                    claimScript,
+                    Collections.singletonList(DEADLINES_KEY),
+                    String.valueOf(now),
+                    String.valueOf(limit)
+            );
+            return due != null ? due : Collections.emptyList();
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
+    }
+
+    /// 처리하지 못한 선점분을 만료 목록에 되돌림 (다음 주기에 다시 선점)
+    public void releaseClaimed(List<String> reservationNumbers) {
+        long now = System.currentTimeMillis();
+        reservationNumbers.forEach(reservationNumber ->
+                stringRedisTemplate.opsForZSet().add(DEADLINES_KEY, reservationNumber, now));
+    }
+
+    private long deadlineAfter(long ttlMinutes) {
+        return System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    private long recordTtlMillis(long ttlMinutes) {
+        return TimeUnit.MINUTES.toMillis(ttlMinutes) + recordGraceMillis;
     }
 }
@@ -0,0 +1,34 @@
+package com.mnms.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mnms.booking.dto.response.WaitingHeadResponseDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/// waiting_broadcast/* 채널의 선두 sequence를 같은 공연/회차 topic 구독자 전체에게 전달
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaitingBroadcastSubscriber implements MessageListener {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final WaitingQueueKeyGenerator waitingQueueKeyGenerator;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        try {
+            WaitingHeadResponseDTO dto = objectMapper.readValue(message.getBody(), WaitingHeadResponseDTO.class);
+            messagingTemplate.convertAndSend(waitingQueueKeyGenerator.toBroadcastTopic(channel), dto);
+        } catch (Exception e) {
+            log.error("브로드캐스트 전달 실패 channel={}: {}", channel, e.getMessage(), e);
+        }
+    }
+}
@@ -2,17 +2,29 @@ package com.mnms.booking.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mnms.booking.dto.response.WaitingHeadResponseDTO;
 import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import com.mnms.booking.enums.WaitingNotificationMode;
+import com.mnms.booking.enums.WebSocketBrokerMode;
 import com.mnms.booking.exception.BusinessException;
 import com.mnms.booking.exception.ErrorCode;
+import com.mnms.booking.util.WaitingNumberFrameCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
-import java.util.Set;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
 @Slf4j
@@ -22,48 +34,74 @@ public class WaitingNotificationService {
     private final StringRedisTemplate stringRedisTemplate;
     private final ObjectMapper objectMapper;
     private final WaitingQueueRedisService waitingQueueRedisService;
+    private final WaitingQueueKeyGenerator waitingQueueKeyGenerator;
+    private final SimpMessagingTemplate messagingTemplate;
 
-    /// 사용자 대기 순번 조회 및 Redis Pub/Sub으로 발행
-    public long getAndPublishWaitingNumber(String waitingQueueKey, String notificationChannelKey, String loginId) {
-        try {
-            long waitingNumber = waitingQueueRedisService.getWaitingNumber(waitingQueueKey, loginId);
-            if (waitingNumber == -1) {
-                throw new BusinessException(ErrorCode.USER_NOT_FOUND_IN_WAITING);
-            }
-            publishWaitingNumber(loginId, waitingNumber, notificationChannelKey);
-            return waitingNumber;
-        } catch (RedisConnectionFailureException e) {
-            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
-        } catch (RedisSystemException e) {
-            throw new BusinessException(ErrorCode.REDIS_PUBLISH_FAILED);
+    private static final String WAITING_NUMBER_DESTINATION = "/queue/waitingNumber";
+
+    private static final ThreadLocal<ByteBuffer> PUBLISH_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(64 * 1024));
+
+    @Value("${waiting-queue.notification-mode:PER_USER}")
+    private WaitingNotificationMode notificationMode;
+
+    @Value("${websocket.broker.mode:SIMPLE}")
+    private WebSocketBrokerMode brokerMode;
+
+    /// 순번 알림 시 한 번에 Redis에서 읽어오는 대기자 수
+    @Value("${waiting-queue.notification.window-size:500}")
+    private int windowSize;
+
+    /// 권장 재조회 간격 = 예상 대기 시간의 1/10 (min ~ max 범위)
+    @Value("${waiting-queue.eta.poll-min-ms:2000}")
+    private long minPollMillis;
+
+    @Value("${waiting-queue.eta.poll-max-ms:60000}")
+    private long maxPollMillis;
+
+    /// Redis Pub/Sub 채널로 대기 순번 정보 발행
+    public void publishWaitingNumber(WaitingNumberResponseDTO waitingNumberDto, String notificationChannelKey) {
+        if (brokerMode == WebSocketBrokerMode.RELAY) {
+            sendToUsers(List.of(waitingNumberDto));
+            return;
         }
+        publishFrame(List.of(waitingNumberDto), notificationChannelKey);
     }
 
-    /// Redis Pub/Sub 채널로 대기 순번 정보 발행
-    private void publishWaitingNumber(String userId, long waitingNumber, String notificationChannelKey) {
+    /// 공연/회차 브로드캐스트 채널로 선두 sequence 한 건만 발행 (대기 인원과 무관하게 1회)
+    private void publishHeadSequence(String waitingQueueKey, String notificationChannelKey) {
         try {
-            WaitingNumberResponseDTO waitingNumberDto = new WaitingNumberResponseDTO(userId, waitingNumber, false, null);
-            String message = objectMapper.writeValueAsString(waitingNumberDto);
-
-            // message 발행
-            stringRedisTemplate.convertAndSend(notificationChannelKey, message);
-
+            WaitingHeadResponseDTO headDto = new WaitingHeadResponseDTO(
+                    waitingQueueRedisService.getHeadSequence(waitingQueueKey),
+                    waitingQueueRedisService.getWaitingUserCount(waitingQueueKey)
+            );
+            if (brokerMode == WebSocketBrokerMode.RELAY) {
+                String topic = waitingQueueKeyGenerator.toBroadcastTopic(waitingQueueKeyGenerator.toBroadcastChannelKey(notificationChannelKey));
+                messagingTemplate.convertAndSend(topic, headDto);
+                return;
+            }
+            String message = objectMapper.writeValueAsString(headDto);
+            stringRedisTemplate.convertAndSend(waitingQueueKeyGenerator.toBroadcastChannelKey(notificationChannelKey), message);
         } catch (JsonProcessingException e) {
             throw new BusinessException(ErrorCode.JSON_SERIALIZATION_FAILED);
+        } catch (MessagingException e) {
+            throw new BusinessException(ErrorCode.STOMP_SEND_FAILED);
         } catch (RedisConnectionFailureException e) {
             throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.REDIS_PUBLISH_FAILED);
         }
     }
 
     /// 모든 대기열 사용자에게 순번 업데이트 알림
     public void notifyAllWaitingUsers(String waitingQueueKey, String notificationChannelKey) {
-        Set<String> allUsersInQueue = waitingQueueRedisService.getAllUsersInQueue(waitingQueueKey);
-
-        if (allUsersInQueue != null) {
-            for (String userId : allUsersInQueue) {
-                getAndPublishWaitingNumber(waitingQueueKey, notificationChannelKey, userId);
-            }
+        if (notificationMode == WaitingNotificationMode.BROADCAST) {
+            publishHeadSequence(waitingQueueKey, notificationChannelKey);
+            return;
         }
+
+        waitingQueueRedisService.forEachUserWindow(waitingQueueKey, windowSize,
+                users -> publishWaitingNumbersQuietly(waitingQueueKey, notificationChannelKey, users));
     }
 
     public void notifyAffectedWaitingUsers(String waitingQueueKey, String notificationChannelKey, Long removedRank) {
@@ -72,11 +110,86 @@ public class WaitingNotificationService {
         }
 
         // 대기열 퇴장한 사람 뒤에 있는 사용자만 조회
-        Set<String> affectedUsers = waitingQueueRedisService.getUsersByRange(waitingQueueKey, removedRank, -1);
-        if (affectedUsers != null) {
-            for (String userId : affectedUsers) {
-                getAndPublishWaitingNumber(waitingQueueKey, notificationChannelKey, userId);
+        waitingQueueRedisService.forEachUserWindowFromRank(waitingQueueKey, removedRank, windowSize,
+                users -> publishWaitingNumbersQuietly(waitingQueueKey, notificationChannelKey, users));
+    }
+
+    /// 대기자 묶음의 순번을 pipeline으로 조회해 채널당 메시지 1건으로 발행
+    /// 조회와 발행 사이에 대기열을 벗어난 사용자는 건너뜀
+    public void publishWaitingNumbers(String waitingQueueKey, String notificationChannelKey, List<String> userIds) {
+        List<WaitingQueueRedisService.QueuePosition> positions = waitingQueueRedisService.getQueuePositions(waitingQueueKey, userIds);
+
+        double admissionRate = waitingQueueRedisService.getAdmissionRateEstimate(waitingQueueKey);
+
+        List<WaitingNumberResponseDTO> block = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            WaitingQueueRedisService.QueuePosition position = positions.get(i);
+            if (position.waitingNumber() == -1) {
+                continue;
             }
+            block.add(toWaitingNumberDto(userIds.get(i), position, admissionRate));
+        }
+        if (block.isEmpty()) {
+            return;
+        }
+        if (brokerMode == WebSocketBrokerMode.RELAY) {
+            sendToUsers(block);
+            return;
+        }
+
+        publishFrame(block, notificationChannelKey);
+    }
+
+    /// 대기 순번 + 예상 대기 시간(순번 / 초당 입장 인원) + 권장 재조회 간격
+    public WaitingNumberResponseDTO toWaitingNumberDto(String userId, WaitingQueueRedisService.QueuePosition position, double admissionRate) {
+        long estimatedWaitSeconds = admissionRate > 0 ? (long) Math.ceil(position.waitingNumber() / admissionRate) : -1;
+        long pollIntervalMillis = estimatedWaitSeconds < 0
+                ? minPollMillis
+                : Math.max(minPollMillis, Math.min(maxPollMillis, estimatedWaitSeconds * 100));
+        return WaitingNumberResponseDTO.builder()
+                .userId(userId)
+                .waitingNumber(position.waitingNumber())
+                .joinSequence(position.joinSequence())
+                .estimatedWaitSeconds(estimatedWaitSeconds)
+                .pollIntervalMillis(pollIntervalMillis)
+                .immediateEntry(false)
+                .build();
+    }
+
+    /// 바이너리 프레임으로 채널당 메시지 1건 발행 (WaitingNumberFrameCodec)
+    private void publishFrame(List<WaitingNumberResponseDTO> block, String notificationChannelKey) {
+        try {
+            // 스레드별 버퍼 재사용 (블록마다 버퍼를 새로 할당하지 않음)
+            ByteBuffer frame = WaitingNumberFrameCodec.encode(block, PUBLISH_BUFFER.get());
+            PUBLISH_BUFFER.set(frame);
+            byte[] channel = notificationChannelKey.getBytes(StandardCharsets.UTF_8);
+            byte[] payload = Arrays.copyOf(frame.array(), frame.limit());
+            stringRedisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, payload));
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.REDIS_PUBLISH_FAILED);
+        }
+    }
+
+    /// RELAY 모드 : Redis Pub/Sub을 거치지 않고 STOMP 브로커로 바로 전송
+    /// (사용자 세션이 있는 노드는 노드 간 공유되는 사용자 정보로 찾음, 연결되지 않은 사용자는 전송 생략)
+    private void sendToUsers(List<WaitingNumberResponseDTO> block) {
+        try {
+            for (WaitingNumberResponseDTO dto : block) {
+                messagingTemplate.convertAndSendToUser(dto.getUserId(), WAITING_NUMBER_DESTINATION, dto);
+            }
+        } catch (MessagingException e) {
+            throw new BusinessException(ErrorCode.STOMP_SEND_FAILED);
+        }
+    }
+
+    /// 한 묶음 발행 실패가 나머지 대기자 알림을 막지 않도록 함
+    private void publishWaitingNumbersQuietly(String waitingQueueKey, String notificationChannelKey, List<String> userIds) {
+        try {
+            publishWaitingNumbers(waitingQueueKey, notificationChannelKey, userIds);
+        } catch (BusinessException e) {
+            log.warn("Failed to notify waiting numbers for {} users on {}: {}", userIds.size(), notificationChannelKey, e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.mnms.booking.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -11,19 +12,64 @@ public class WaitingQueueKeyGenerator {
     private static final String WAITING_QUEUE_KEY = "waiting_queue";
     private static final String BOOKING_USERS_SET_KEY = "booking_users";
     private static final String NOTIFICATION_CHANNEL = "waiting_notification";
+    private static final String BROADCAST_CHANNEL = "waiting_broadcast";
+    private static final String BROADCAST_TOPIC = "/topic/waiting";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
 
-    public String getWaitingQueueKey(String festivalId, LocalDateTime reservationDate) {
-        String dateStr = reservationDate.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-        return WAITING_QUEUE_KEY + ":" + festivalId + ":" + dateStr;
+    /// 공연/회차당 대기열 분할 수 (1 = 분할 없음)
+    @Value("${waiting-queue.shard-count:1}")
+    private int shardCount;
+
+    /// 공연의 실제 lane 수 = 분할 수를 수용 인원 이하로 제한 (정원 0명인 lane이 생기지 않도록)
+    public int getLaneCount(long availableNOP) {
+        return (int) Math.max(1, Math.min(shardCount, availableNOP));
+    }
+
+    /// 사용자 → 대기열 lane (userId 해시, 같은 사용자는 항상 같은 lane)
+    public int getLane(String userId, int laneCount) {
+        return laneCount <= 1 ? 0 : Math.floorMod(userId.hashCode(), laneCount);
+    }
+
+    /// lane별 예매 페이지 정원 (나머지는 앞쪽 lane부터 1명씩 배분)
+    public long getLaneCapacity(long availableNOP, int lane) {
+        return getLaneShare(availableNOP, lane, getLaneCount(availableNOP));
+    }
+
+    /// 공연 전체 값(정원, 초당 입장 인원 등)을 lane 수로 나눈 lane 몫
+    public long getLaneShare(long total, int lane, int laneCount) {
+        if (laneCount <= 1) {
+            return total;
+        }
+        return total / laneCount + (lane < total % laneCount ? 1 : 0);
+    }
+
+    public String getWaitingQueueKey(String festivalId, LocalDateTime reservationDate, int lane, int laneCount) {
+        return WAITING_QUEUE_KEY + ":" + hashTag(festivalId, reservationDate, lane, laneCount);
+    }
+
+    public String getBookingUsersKey(String festivalId, LocalDateTime reservationDate, int lane, int laneCount) {
+        return BOOKING_USERS_SET_KEY + ":" + hashTag(festivalId, reservationDate, lane, laneCount);
+    }
+
+    public String getNotificationChannelKey(String festivalId, LocalDateTime reservationDate, int lane, int laneCount) {
+        String channelKey = NOTIFICATION_CHANNEL + "/" + festivalId + "/" + reservationDate.format(DATE_FORMAT);
+        return laneCount <= 1 ? channelKey : channelKey + "/" + lane;
+    }
+
+    /// 개인 알림 채널 → 같은 공연/회차(lane)의 브로드캐스트 채널
+    public String toBroadcastChannelKey(String notificationChannelKey) {
+        return BROADCAST_CHANNEL + notificationChannelKey.substring(NOTIFICATION_CHANNEL.length());
     }
 
-    public String getBookingUsersKey(String festivalId, LocalDateTime reservationDate) {
-        String dateStr = reservationDate.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-        return BOOKING_USERS_SET_KEY + ":" + festivalId + ":" + dateStr;
+    /// Redis 브로드캐스트 채널 → STOMP 구독 경로 (/topic/waiting/{festivalId}/{yyyyMMddHHmm}[/{lane}])
+    public String toBroadcastTopic(String broadcastChannelKey) {
+        return BROADCAST_TOPIC + broadcastChannelKey.substring(BROADCAST_CHANNEL.length());
     }
 
-    public String getNotificationChannelKey(String festivalId, LocalDateTime reservationDate) {
-        String dateStr = reservationDate.format(DateTimeFormatter.ofPattern("yyyyMMddHHmm"));
-        return NOTIFICATION_CHANNEL + "/" + festivalId + "/" + dateStr;
+    /// Redis Cluster hash tag: 같은 lane의 대기열/예매자/보조 키(:issued, :served, :heartbeat ...)는 같은 slot,
+    /// lane이 다르면 다른 slot으로 분산
+    private String hashTag(String festivalId, LocalDateTime reservationDate, int lane, int laneCount) {
+        String tag = festivalId + ":" + reservationDate.format(DATE_FORMAT);
+        return "{" + (laneCount <= 1 ? tag : tag + ":" + lane) + "}";
     }
-}
\ No newline at end of file
+}
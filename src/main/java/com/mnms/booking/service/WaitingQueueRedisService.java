@@ -5,15 +5,20 @@ import com.mnms.booking.exception.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.ZSetOperations;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Optional;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
@@ -23,39 +28,253 @@ public class WaitingQueueRedisService {
     private final ZSetOperations<String, String> zSetOperations;
 
     /// Lua 스크립트
-    private static final String ENTER_SCRIPT =
-            "local current = redis.call('SCARD', KEYS[1]); " +
-                    "if current < tonumber(ARGV[1]) then " +
-                    "  redis.call('SADD', KEYS[1], ARGV[2]); " +
-                    "  return 1; " +
+    /*
+     * 대기열 = 번호표 방식
+     *  - waiting_queue:*          ZSET (member = userId, score = 번호표)
+     *  - waiting_queue:*:issued   마지막으로 발급된 번호표 (INCR)
+     *  - waiting_queue:*:served   마지막으로 입장 처리된 번호표
+     *  - waiting_queue:*:tombstones  served 이후 번호표 중 대기열을 이탈한 번호표
+     * 대기 순번 = 내 번호표 - served - (served ~ 내 번호표 사이 이탈 수)
+     */
+
+    /// 예매하기 진입 (멱등) : 예매 페이지 / 대기열 소속을 한 번에 확인하고 현재 상태 반환
+    ///  - 이미 예매 페이지 or 대기 중 → 변경 없이 현재 상태 (새로고침은 Redis 왕복 1회)
+    ///  - 대기자가 없고 빈 자리가 있으면 즉시 입장, 아니면 번호표 발급 후 대기열 등록
+    ///  - 즉시 입장도 입장 처리(ADMIT_SCRIPT)와 같은 token bucket에서 토큰을 쓰고, 토큰이 없으면 대기열 등록
+    /// KEYS: booking, booking:heartbeat, queue, queue:issued, queue:served, queue:tombstones, queue:rate, queue:bucket
+    /// ARGV: 수용 인원, userId, now(ms), 예매 페이지 TTL, 대기열 TTL, 초당 입장 인원(0 = 제한 없음), burst
+    /// 반환: {상태(1 = 예매 페이지, 2 = 대기), 대기 순번, 번호표, 신규 여부, 초당 입장 인원 × 1000}
+    private static final String ENTRY_SCRIPT =
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[2]) == 1 then return {1, 0, 0, 0, 0} end; " +
+                    "local served = tonumber(redis.call('GET', KEYS[5]) or '0'); " +
+                    "local ticket = redis.call('ZSCORE', KEYS[3], ARGV[2]); " +
+                    "local created = 0; " +
+                    "if ticket then " +
+                    "  ticket = tonumber(ticket); " +
                     "else " +
-                    "  return 0; " +
-                    "end";
+                    "  if redis.call('ZCARD', KEYS[3]) == 0 and redis.call('SCARD', KEYS[1]) < tonumber(ARGV[1]) then " +
+                    "    local admit = true; " +
+                    "    local rate = tonumber(ARGV[6]); " +
+                    "    if rate > 0 then " +
+                    "      local burst = tonumber(ARGV[7]); " +
+                    "      local now = tonumber(ARGV[3]); " +
+                    "      local bucket = redis.call('HMGET', KEYS[8], 'tokens', 'ts'); " +
+                    "      local tokens = tonumber(bucket[1]) or burst; " +
+                    "      local ts = tonumber(bucket[2]) or now; " +
+                    "      tokens = math.min(burst, tokens + math.max(0, now - ts) * rate / 1000); " +
+                    "      if tokens >= 1 then " +
+                    "        redis.call('HSET', KEYS[8], 'tokens', tokens - 1, 'ts', now); " +
+                    "        redis.call('EXPIRE', KEYS[8], ARGV[4]); " +
+                    "      else " +
+                    "        admit = false; " +
+                    "      end; " +
+                    "    end; " +
+                    "    if admit then " +
+                    "      redis.call('SADD', KEYS[1], ARGV[2]); " +
+                    "      redis.call('EXPIRE', KEYS[1], ARGV[4]); " +
+                    "      redis.call('ZADD', KEYS[2], ARGV[3], ARGV[2]); " +
+                    "      redis.call('EXPIRE', KEYS[2], ARGV[4]); " +
+                    "      return {1, 0, 0, 1, 0}; " +
+                    "    end; " +
+                    "  end; " +
+                    "  ticket = redis.call('INCR', KEYS[4]); " +
+                    "  if ticket <= served then " +
+                    "    ticket = served + 1; " +
+                    "    redis.call('SET', KEYS[4], ticket); " +
+                    "  end; " +
+                    "  redis.call('ZADD', KEYS[3], ticket, ARGV[2]); " +
+                    "  redis.call('EXPIRE', KEYS[3], ARGV[5]); " +
+                    "  redis.call('EXPIRE', KEYS[4], ARGV[5]); " +
+                    "  created = 1; " +
+                    "end; " +
+                    "local cancelled = redis.call('ZCOUNT', KEYS[6], '(' .. served, '(' .. ticket); " +
+                    "local rate = math.floor(tonumber(redis.call('GET', KEYS[7]) or '0') * 1000); " +
+                    "return {2, ticket - served - cancelled, ticket, created, rate}";
+
+    /// 빈 자리 수만큼 번호표 순서대로 꺼내(ZPOPMIN) 예매 페이지 Set에 넣고, served 번호표를 갱신하는 Lua 스크립트
+    /// 초당 입장 인원 제한(ARGV[3] > 0)이 있으면 token bucket에 남은 토큰 수만큼만 입장
+    private static final String ADMIT_SCRIPT =
+            "local free = tonumber(ARGV[1]) - redis.call('SCARD', KEYS[2]); " +
+                    "if free <= 0 then return {} end; " +
+                    "local rate = tonumber(ARGV[3]); " +
+                    "local tokens, now; " +
+                    "if rate > 0 then " +
+                    "  local burst = tonumber(ARGV[4]); " +
+                    "  now = tonumber(ARGV[5]); " +
+                    "  local bucket = redis.call('HMGET', KEYS[5], 'tokens', 'ts'); " +
+                    "  tokens = tonumber(bucket[1]) or burst; " +
+                    "  local ts = tonumber(bucket[2]) or now; " +
+                    "  tokens = math.min(burst, tokens + math.max(0, now - ts) * rate / 1000); " +
+                    "  free = math.min(free, math.floor(tokens)); " +
+                    "end; " +
+                    "local admitted = {}; " +
+                    "if free > 0 then " +
+                    "  local popped = redis.call('ZPOPMIN', KEYS[1], free); " +
+                    "  for i = 1, #popped, 2 do " +
+                    "    redis.call('SADD', KEYS[2], popped[i]); " +
+                    "    redis.call('ZADD', KEYS[6], ARGV[5], popped[i]); " +
+                    "    admitted[#admitted + 1] = popped[i]; " +
+                    "  end; " +
+                    "  if #admitted > 0 then " +
+                    "    local served = popped[#popped]; " +
+                    "    redis.call('EXPIRE', KEYS[2], ARGV[2]); " +
+                    "    redis.call('EXPIRE', KEYS[6], ARGV[2]); " +
+                    "    redis.call('SET', KEYS[3], served, 'EX', ARGV[2]); " +
+                    "    redis.call('ZREMRANGEBYSCORE', KEYS[4], '-inf', served); " +
+                    "  end; " +
+                    "end; " +
+                    "if rate > 0 then " +
+                    "  redis.call('HSET', KEYS[5], 'tokens', tokens - #admitted, 'ts', now); " +
+                    "  redis.call('EXPIRE', KEYS[5], ARGV[2]); " +
+                    "end; " +
+                    "return admitted";
+
+    /// 번호표와 served 기준 대기 순번 조회 (ZRANK 없이 O(1) + 이탈 번호표 수)
+    private static final String POSITION_SCRIPT =
+            "local ticket = redis.call('ZSCORE', KEYS[1], ARGV[1]); " +
+                    "if not ticket then return {-1, -1} end; " +
+                    "ticket = tonumber(ticket); " +
+                    "local served = tonumber(redis.call('GET', KEYS[2]) or '0'); " +
+                    "local cancelled = redis.call('ZCOUNT', KEYS[3], '(' .. served, '(' .. ticket); " +
+                    "return {ticket - served - cancelled, ticket}";
+
+    /// 대기열 이탈 처리 (번호표는 tombstone으로 남겨 뒤 순번 계산에 반영)
+    private static final String LEAVE_SCRIPT =
+            "local ticket = redis.call('ZSCORE', KEYS[1], ARGV[1]); " +
+                    "if not ticket then return 0 end; " +
+                    "redis.call('ZREM', KEYS[1], ARGV[1]); " +
+                    "redis.call('ZADD', KEYS[2], ticket, ticket); " +
+                    "redis.call('EXPIRE', KEYS[2], ARGV[2]); " +
+                    "return 1";
+
+    /// 예매 페이지에 있는 사용자일 때만 마지막 접속 시각 갱신
+    private static final String HEARTBEAT_SCRIPT =
+            "if redis.call('SISMEMBER', KEYS[1], ARGV[1]) == 1 then " +
+                    "  redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1]); " +
+                    "  return 1; " +
+                    "end; " +
+                    "return 0";
+
+    /// 마지막 접속 시각이 기준 이전인 예매 페이지 사용자 퇴장 처리
+    private static final String EVICT_SCRIPT =
+            "local stale = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]); " +
+                    "for _, userId in ipairs(stale) do " +
+                    "  redis.call('SREM', KEYS[1], userId); " +
+                    "  redis.call('ZREM', KEYS[2], userId); " +
+                    "end; " +
+                    "return stale";
+
+    private static final String ISSUED_SUFFIX = ":issued";
+    private static final String SERVED_SUFFIX = ":served";
+    private static final String TOMBSTONES_SUFFIX = ":tombstones";
+    private static final String BUCKET_SUFFIX = ":bucket";
+    private static final String HEARTBEAT_SUFFIX = ":heartbeat";
+    private static final String RATE_SUFFIX = ":rate";
+    private static final int EVICT_BATCH_SIZE = 1000;
+
+    private static final Duration BOOKING_USERS_TTL = Duration.ofDays(2);
+    private static final Duration WAITING_QUEUE_TTL = Duration.ofDays(2);
+
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> entryScript;
+    private final DefaultRedisScript<Long> leaveScript;
+    private final DefaultRedisScript<Long> heartbeatScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> evictScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> admitScript;
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> positionScript;
 
-    private final DefaultRedisScript<Long> enterScript;
+    /// 대기 순번 + 번호표(진입 sequence)
+    public record QueuePosition(long waitingNumber, long joinSequence) {}
+
+    /// 예매하기 진입 결과 (booking = 예매 페이지 입장 상태, created = 이번 호출로 새로 입장/등록됨)
+    public record EntryState(boolean booking, QueuePosition position, boolean created, double admissionRate) {}
 
     {
-        enterScript = new DefaultRedisScript<>();
-        enterScript.setScriptText(ENTER_SCRIPT);
-        enterScript.setResultType(Long.class);
+        entryScript = new DefaultRedisScript<>();
+        entryScript.setScriptText(ENTRY_SCRIPT);
+        entryScript.setResultType(List.class);
+
+        leaveScript = new DefaultRedisScript<>();
+        leaveScript.setScriptText(LEAVE_SCRIPT);
+        leaveScript.setResultType(Long.class);
+
+        heartbeatScript = new DefaultRedisScript<>();
+        heartbeatScript.setScriptText(HEARTBEAT_SCRIPT);
+        heartbeatScript.setResultType(Long.class);
+
+        evictScript = new DefaultRedisScript<>();
+        evictScript.setScriptText(EVICT_SCRIPT);
+        evictScript.setResultType(List.class);
+
+        admitScript = new DefaultRedisScript<>();
+        admitScript.setScriptText(ADMIT_SCRIPT);
+        admitScript.setResultType(List.class);
+
+        positionScript = new DefaultRedisScript<>();
+        positionScript.setScriptText(POSITION_SCRIPT);
+        positionScript.setResultType(List.class);
     }
 
+    /// 예매하기 진입 (멱등, Lua 1회) - 예매 페이지와 대기열은 같은 hash tag라 같은 slot
+    @SuppressWarnings("unchecked")
+    public EntryState enter(String bookingUsersKey, String waitingQueueKey, long availableNOP, String userId,
+                            AdmissionRateService.AdmissionRate admissionRate) {
+        try {
+            List<Long> result = redisTemplate.execute(
+                    entryScript,
+                    List.of(bookingUsersKey, bookingUsersKey + HEARTBEAT_SUFFIX,
+                            waitingQueueKey, waitingQueueKey + ISSUED_SUFFIX, waitingQueueKey + SERVED_SUFFIX,
+                            waitingQueueKey + TOMBSTONES_SUFFIX, waitingQueueKey + RATE_SUFFIX,
+                            waitingQueueKey + BUCKET_SUFFIX),
+                    String.valueOf(availableNOP),
+                    userId,
+                    String.valueOf(System.currentTimeMillis()),
+                    String.valueOf(BOOKING_USERS_TTL.toSeconds()),
+                    String.valueOf(WAITING_QUEUE_TTL.toSeconds()),
+                    String.valueOf(admissionRate.ratePerSecond()),
+                    String.valueOf(admissionRate.burst())
+            );
+            if (result == null || result.size() < 5) {
+                throw new BusinessException(ErrorCode.FAILED_TO_ENTER_QUEUE);
+            }
+            return new EntryState(
+                    result.get(0) == 1,
+                    new QueuePosition(result.get(1), result.get(2)),
+                    result.get(3) == 1,
+                    result.get(4) / 1000.0
+            );
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
+    }
+
+
     /**
-     * Lua 스크립트로 안전하게 유저 추가 시도
-     * @return true = 즉시 입장, false = 대기열 필요
+     * 예매 페이지의 빈 자리만큼 대기열 선두 사용자를 한 번의 호출로 입장 처리
+     * @param admissionRate 초당 입장 인원 제한 (ratePerSecond 0 = 제한 없음)
+     * @return 입장 처리된 사용자 ID 목록 (대기 순서대로)
      */
-    public boolean tryEnterBooking(String bookingUsersKey, long availableNOP, String userId) {
+    @SuppressWarnings("unchecked")
+    public List<String> admitUsers(String waitingQueueKey, String bookingUsersKey, long availableNOP,
+                                   AdmissionRateService.AdmissionRate admissionRate) {
         try {
-            Long result = redisTemplate.execute(
-                    enterScript,
-                    Collections.singletonList(bookingUsersKey),
+            List<String> admitted = redisTemplate.execute(
+                    admitScript,
+                    List.of(waitingQueueKey, bookingUsersKey, waitingQueueKey + SERVED_SUFFIX,
+                            waitingQueueKey + TOMBSTONES_SUFFIX, waitingQueueKey + BUCKET_SUFFIX,
+                            bookingUsersKey + HEARTBEAT_SUFFIX),
                     String.valueOf(availableNOP),
-                    userId
+                    String.valueOf(BOOKING_USERS_TTL.toSeconds()),
+                    String.valueOf(admissionRate.ratePerSecond()),
+                    String.valueOf(admissionRate.burst()),
+                    String.valueOf(System.currentTimeMillis())
             );
-
-            return Optional.of(result)
-                    .map(r -> r == 1)
-                    .orElseThrow(() -> new BusinessException(ErrorCode.FAILED_TO_ENTER_BOOKING));
+            return admitted != null ? admitted : Collections.emptyList();
         } catch (RedisConnectionFailureException e) {
             throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
         } catch (RedisSystemException e) {
@@ -69,35 +288,150 @@ public class WaitingQueueRedisService {
         this.zSetOperations = redisTemplate.opsForZSet();
     }
 
-    public boolean addUserToQueue(String waitingQueueKey, String loginId) {
-        long timestamp = System.currentTimeMillis();
-        Boolean result = zSetOperations.add(waitingQueueKey, loginId, timestamp);
-        redisTemplate.expire(waitingQueueKey, Duration.ofDays(2));
-        return result != null && result; // null 방어
+    public boolean removeUserFromQueue(String waitingQueueKey, String userId) {
+        try {
+            Long removed = redisTemplate.execute(
+                    leaveScript,
+                    List.of(waitingQueueKey, waitingQueueKey + TOMBSTONES_SUFFIX),
+                    userId,
+                    String.valueOf(WAITING_QUEUE_TTL.toSeconds())
+            );
+            return removed != null && removed > 0;
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
+    }
+
+    /// 대기열 전체를 번호표 순서대로 window 단위로 순회 (ZRANGEBYSCORE ... LIMIT, 한 번에 windowSize명만 메모리에 적재)
+    public void forEachUserWindow(String waitingQueueKey, int windowSize, Consumer<List<String>> consumer) {
+        forEachUserWindowFromScore(waitingQueueKey, Double.NEGATIVE_INFINITY, windowSize, consumer);
     }
 
-    public boolean removeUserFromQueue(String waitingQueueKey, String userId) {
-        Long removedCount = zSetOperations.remove(waitingQueueKey, userId);
-        return removedCount != null && removedCount > 0;
+    /// startRank 위치(0부터)의 사용자부터 끝까지 window 단위 순회
+    public void forEachUserWindowFromRank(String waitingQueueKey, long startRank, int windowSize, Consumer<List<String>> consumer) {
+        Set<ZSetOperations.TypedTuple<String>> first = zSetOperations.rangeWithScores(waitingQueueKey, startRank, startRank);
+        if (first == null || first.isEmpty()) {
+            return;
+        }
+        forEachUserWindowFromScore(waitingQueueKey, first.iterator().next().getScore(), windowSize, consumer);
+    }
+
+    /// 번호표(score)를 cursor로 사용 → 순회 중 앞쪽 사용자가 입장/이탈해도 건너뛰거나 중복 없이 진행
+    private void forEachUserWindowFromScore(String waitingQueueKey, double minScore, int windowSize, Consumer<List<String>> consumer) {
+        double cursor = minScore;
+        try {
+            while (true) {
+                Set<ZSetOperations.TypedTuple<String>> window =
+                        zSetOperations.rangeByScoreWithScores(waitingQueueKey, cursor, Double.POSITIVE_INFINITY, 0, windowSize);
+                if (window == null || window.isEmpty()) {
+                    return;
+                }
+                List<String> users = new ArrayList<>(window.size());
+                for (ZSetOperations.TypedTuple<String> tuple : window) {
+                    users.add(tuple.getValue());
+                    cursor = tuple.getScore();
+                }
+                consumer.accept(users);
+                if (window.size() < windowSize) {
+                    return;
+                }
+                cursor += 1; // 번호표는 중복 없는 정수
+            }
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.REDIS_OPERATION_FAILED);
+        }
     }
 
-    public Set<String> getAllUsersInQueue(String waitingQueueKey) {
-        return zSetOperations.range(waitingQueueKey, 0, -1);
+    /// 대기 순번과 번호표 조회 (대기열에 없으면 waitingNumber = -1)
+    @SuppressWarnings("unchecked")
+    public QueuePosition getQueuePosition(String waitingQueueKey, String userId) {
+        List<Long> result = redisTemplate.execute(
+                positionScript,
+                List.of(waitingQueueKey, waitingQueueKey + SERVED_SUFFIX, waitingQueueKey + TOMBSTONES_SUFFIX),
+                userId
+        );
+        if (result == null || result.size() < 2) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
+        return new QueuePosition(result.get(0), result.get(1));
     }
 
-    // 수정 필요
-    public Set<String> getUsersByRange(String waitingQueueKey, long start, long end) {
-        return zSetOperations.range(waitingQueueKey, start, end);
+    /// 여러 사용자의 대기 순번을 pipeline으로 조회 (사용자 수와 무관하게 왕복 2회, 입력 순서대로 반환)
+    /// 단건 조회(Lua)와 달리 원자적이지 않으므로 순번 알림 용도로만 사용
+    @SuppressWarnings("unchecked")
+    public List<QueuePosition> getQueuePositions(String waitingQueueKey, List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        String tombstonesKey = waitingQueueKey + TOMBSTONES_SUFFIX;
+        try {
+            // 1) served + 사용자별 번호표
+            List<Object> scores = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    ops.opsForValue().get(waitingQueueKey + SERVED_SUFFIX);
+                    for (String userId : userIds) {
+                        ops.opsForZSet().score(waitingQueueKey, userId);
+                    }
+                    return null;
+                }
+            });
+            long served = scores.get(0) != null ? Long.parseLong(scores.get(0).toString()) : 0L;
+
+            // 2) 번호표 앞쪽의 이탈자 수 (tombstone은 항상 served 이후 번호표만 남아 있음)
+            List<Object> tombstonesAhead = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (int i = 0; i < userIds.size(); i++) {
+                        Double ticket = (Double) scores.get(i + 1);
+                        if (ticket != null) {
+                            ops.opsForZSet().count(tombstonesKey, served + 1, ticket - 1);
+                        }
+                    }
+                    return null;
+                }
+            });
+
+            List<QueuePosition> positions = new ArrayList<>(userIds.size());
+            int countIndex = 0;
+            for (int i = 0; i < userIds.size(); i++) {
+                Double ticket = (Double) scores.get(i + 1);
+                if (ticket == null) {
+                    positions.add(new QueuePosition(-1, -1));
+                    continue;
+                }
+                long joinSequence = ticket.longValue();
+                long ahead = (Long) tombstonesAhead.get(countIndex++);
+                positions.add(new QueuePosition(joinSequence - served - ahead, joinSequence));
+            }
+            return positions;
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.REDIS_OPERATION_FAILED);
+        }
+    }
+
+    /// 마지막으로 입장 처리된 번호표 (served)
+    public long getHeadSequence(String waitingQueueKey) {
+        String served = redisTemplate.opsForValue().get(waitingQueueKey + SERVED_SUFFIX);
+        return (served != null) ? Long.parseLong(served) : 0L;
     }
 
-    public String getFirstUserInQueue(String waitingQueueKey) {
-        Set<String> users = zSetOperations.range(waitingQueueKey, 0, 0);
-        return (users != null && !users.isEmpty()) ? users.iterator().next() : null;
+    /// 리더가 측정한 초당 입장 인원 (EWMA, 측정 전이면 0)
+    public double getAdmissionRateEstimate(String waitingQueueKey) {
+        String rate = redisTemplate.opsForValue().get(waitingQueueKey + RATE_SUFFIX);
+        return (rate != null) ? Double.parseDouble(rate) : 0.0;
     }
 
-    public long getWaitingNumber(String waitingQueueKey, String userId) {
-        Long rank = zSetOperations.rank(waitingQueueKey, userId);
-        return (rank != null) ? rank + 1 : -1;
+    public void saveAdmissionRateEstimate(String waitingQueueKey, double ratePerSecond) {
+        redisTemplate.opsForValue().set(waitingQueueKey + RATE_SUFFIX, String.valueOf(ratePerSecond), WAITING_QUEUE_TTL);
     }
 
     // 현 예매 페이지에 있는 사용자 수
@@ -111,15 +445,61 @@ public class WaitingQueueRedisService {
         return (count != null) ? count : 0L;
     }
 
-    public void addBookingUser(String bookingUsersKey, String userId) {
-        redisTemplate.opsForSet().add(bookingUsersKey, userId);
+    public void removeBookingUsers(String bookingUsersKey, Collection<String> userIds) {
+        Object[] members = userIds.toArray();
+        redisTemplate.opsForSet().remove(bookingUsersKey, members);
+        zSetOperations.remove(bookingUsersKey + HEARTBEAT_SUFFIX, members);
+    }
 
-        // ttl 생성
-        redisTemplate.expire(bookingUsersKey, Duration.ofDays(2));
+    public boolean isBookingUser(String bookingUsersKey, String userId) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(bookingUsersKey, userId));
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.REDIS_OPERATION_FAILED);
+        }
+    }
+
+    /**
+     * 예매 페이지 사용자의 마지막 접속 시각 갱신
+     * @return false = 예매 페이지 사용자가 아님 (이미 퇴장 처리됨)
+     */
+    public boolean touchBookingUser(String bookingUsersKey, String userId) {
+        try {
+            Long result = redisTemplate.execute(
+                    heartbeatScript,
+                    List.of(bookingUsersKey, bookingUsersKey + HEARTBEAT_SUFFIX),
+                    userId,
+                    String.valueOf(System.currentTimeMillis())
+            );
+            return result != null && result == 1;
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
     }
 
-    public void removeBookingUser(String bookingUsersKey, String userId) {
-        redisTemplate.opsForSet().remove(bookingUsersKey, userId);
+    /**
+     * idleTimeout 동안 heartbeat가 없는 예매 페이지 사용자 퇴장 처리
+     * @return 퇴장 처리된 사용자 ID 목록
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> evictIdleBookingUsers(String bookingUsersKey, Duration idleTimeout) {
+        try {
+            List<String> evicted = redisTemplate.execute(
+                    evictScript,
+                    List.of(bookingUsersKey, bookingUsersKey + HEARTBEAT_SUFFIX),
+                    String.valueOf(System.currentTimeMillis() - idleTimeout.toMillis()),
+                    String.valueOf(EVICT_BATCH_SIZE)
+            );
+            return evicted != null ? evicted : Collections.emptyList();
+        } catch (RedisConnectionFailureException e) {
+            throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
+        } catch (RedisSystemException e) {
+            throw new BusinessException(ErrorCode.FAILED_TO_EXECUTE_SCRIPT);
+        }
     }
 
 
@@ -1,16 +1,28 @@
 package com.mnms.booking.service;
 
+import com.mnms.booking.enums.AdmissionWakeUpReason;
 import com.mnms.booking.exception.BusinessException;
 import com.mnms.booking.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,69 +34,292 @@ import java.util.concurrent.ScheduledFuture;
 public class WaitingQueueSchedulingService {
     private final WaitingQueueRedisService waitingQueueRedisService;
     private final WaitingNotificationService waitingNotificationService;
+    private final LeaderLeaseService leaderLeaseService;
+    private final AdmissionRateService admissionRateService;
+    private final WaitingQueueKeyGenerator waitingQueueKeyGenerator;
+    private final FestivalCache festivalCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
     private final ThreadPoolTaskScheduler scheduler;
-    private final Map<String, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
+    private final Map<String, QueueTask> scheduledTasks = new ConcurrentHashMap<>();
 
-    /// 스케줄러 시작 (중복 시작 방지)
-    public synchronized void startScheduler(String waitingQueueKey, String bookingUsersKey, String notificationChannelKey, long availableNOP) {
-        if (scheduledTasks.containsKey(waitingQueueKey) && !scheduledTasks.get(waitingQueueKey).isDone()) {
+    private static final String LEADER_SUFFIX = ":leader";
+    public static final String WAKE_UP_CHANNEL = "waiting_wakeup";
+    /// 대기자가 있는 대기열 목록 (member = festivalId:yyyyMMddHHmm:lane) → 모든 노드가 lease 경쟁에 참여
+    private static final String ACTIVE_QUEUES_KEY = "waiting_queue_index";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    /// 리더 lease 유지 시간 (최대 입장 처리 주기보다 길어야 함)
+    @Value("${waiting-queue.leader.lease-ms:30000}")
+    private long leaseMillis;
+
+    /// 이 시간 동안 heartbeat가 없는 예매 페이지 사용자는 퇴장 처리 (0 = 사용 안 함)
+    ///  - 퇴장 처리된 사용자는 예매 단계 요청이 거절되므로 heartbeat를 보내는 클라이언트에서만 켤 것
+    @Value("${waiting-queue.heartbeat.idle-timeout-ms:0}")
+    private long idleTimeoutMillis;
+
+    /// 변화가 있을 때의 입장 처리 주기
+    @Value("${waiting-queue.tick.min-ms:500}")
+    private long minTickMillis;
+
+    /// 변화가 없을 때 지수적으로 늘어나는 주기의 상한
+    @Value("${waiting-queue.tick.max-ms:10000}")
+    private long maxTickMillis;
+
+    /// 초당 입장 인원 EWMA의 시간 상수 (이 시간 이전 측정값의 가중치는 1/e 이하)
+    @Value("${waiting-queue.eta.ewma-window-ms:30000}")
+    private long ewmaWindowMillis;
+
+    private DistributionSummary tickInterval;
+
+    /// 대기열별 스케줄 상태 (이 노드 로컬)
+    private static class QueueTask {
+        private final String festivalId;
+        private final LocalDateTime reservationDate;
+        private final int lane;
+        private final int laneCount;
+        private final String waitingQueueKey;
+        private final String bookingUsersKey;
+        private final String notificationChannelKey;
+        private final long totalNOP; // 공연/회차 전체 정원
+        private final long availableNOP; // 이 lane 정원
+        private ScheduledFuture<?> future;
+        private long delayMillis;
+        private long lastWaitingCount = -1;
+        private double admissionRate; // 초당 입장 인원 EWMA
+        private long lastRateSampleAt; // 0 = 이 노드에서 아직 측정 전
+        private boolean running;
+        private boolean wakeRequested;
+        private boolean stopped;
+
+        private QueueTask(String festivalId, LocalDateTime reservationDate, int lane, int laneCount,
+                          String waitingQueueKey, String bookingUsersKey, String notificationChannelKey,
+                          long totalNOP, long availableNOP) {
+            this.festivalId = festivalId;
+            this.reservationDate = reservationDate;
+            this.lane = lane;
+            this.laneCount = laneCount;
+            this.waitingQueueKey = waitingQueueKey;
+            this.bookingUsersKey = bookingUsersKey;
+            this.notificationChannelKey = notificationChannelKey;
+            this.totalNOP = totalNOP;
+            this.availableNOP = availableNOP;
+        }
+    }
+
+    @PostConstruct
+    public void initMetrics() {
+        tickInterval = DistributionSummary.builder("waiting.queue.tick.interval")
+                .description("대기열 입장 처리 다음 실행까지의 간격")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /// 스케줄러 시작 (중복 시작 방지, 분할 대기열은 lane마다 따로 시작)
+    public synchronized void startScheduler(String festivalId, LocalDateTime reservationDate, int lane, int laneCount, long totalNOP) {
+        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate, lane, laneCount);
+        if (scheduledTasks.containsKey(waitingQueueKey)) {
             return;
         }
         log.info("Starting scheduler for queue: {}", waitingQueueKey);
-        ScheduledFuture<?> task = scheduler.scheduleWithFixedDelay(
-                () -> runSchedulerLogic(waitingQueueKey, bookingUsersKey, notificationChannelKey, availableNOP),
-                Duration.ofSeconds(10)
-        );
+        registerActiveQueue(festivalId, reservationDate, lane);
+        QueueTask task = new QueueTask(festivalId, reservationDate, lane, laneCount, waitingQueueKey,
+                waitingQueueKeyGenerator.getBookingUsersKey(festivalId, reservationDate, lane, laneCount),
+                waitingQueueKeyGenerator.getNotificationChannelKey(festivalId, reservationDate, lane, laneCount),
+                totalNOP, waitingQueueKeyGenerator.getLaneCapacity(totalNOP, lane));
+        task.delayMillis = minTickMillis;
         scheduledTasks.put(waitingQueueKey, task);
+        schedule(task, 0);
     }
 
     /// 스케줄러 중지
     public synchronized void stopScheduler(String waitingQueueKey) {
-        ScheduledFuture<?> task = scheduledTasks.get(waitingQueueKey);
-        if (task != null && !task.isCancelled()) {
-            task.cancel(false);
-            scheduledTasks.remove(waitingQueueKey);
+        QueueTask task = scheduledTasks.remove(waitingQueueKey);
+        if (task != null) {
+            task.stopped = true;
+            if (task.future != null) {
+                task.future.cancel(false);
+            }
+            leaderLeaseService.release(waitingQueueKey + LEADER_SUFFIX);
             log.info("Stopped scheduler for queue: {}", waitingQueueKey);
         }
     }
 
-    /// 주기적으로 대기열 순번 발행 및 입장 처리
-    private void runSchedulerLogic(String waitingQueueKey, String bookingUsersKey, String notificationChannelKey, long availableNOP) {
+    /**
+     * 다른 노드에서 생긴 대기열에도 스케줄러를 띄워 lease 경쟁에 참여
+     *  - 대기자가 이 노드로 들어오지 않았어도 리더 장애 시 이어받을 수 있도록 모든 노드가 follower로 대기
+     *  - 대기자가 없는 대기열은 목록에서 제거 (다시 대기자가 생기면 진입/리더 노드가 다시 등록)
+     */
+    @Scheduled(fixedDelayString = "${waiting-queue.leader.scan-ms:5000}")
+    public void joinActiveQueues() {
         try {
-            Set<String> waitingUsers = waitingQueueRedisService.getAllUsersInQueue(waitingQueueKey);
+            Set<String> members = stringRedisTemplate.opsForSet().members(ACTIVE_QUEUES_KEY);
+            if (members == null) {
+                return;
+            }
+            members.forEach(this::joinActiveQueue);
+        } catch (Exception e) {
+            log.warn("Failed to scan active waiting queues: {}", e.getMessage());
+        }
+    }
 
-            if (waitingUsers == null || waitingUsers.isEmpty()) {
-                stopScheduler(waitingQueueKey);
+    private void joinActiveQueue(String member) {
+        int laneSeparator = member.lastIndexOf(':');
+        int dateSeparator = member.lastIndexOf(':', laneSeparator - 1);
+        String festivalId = member.substring(0, dateSeparator);
+        LocalDateTime reservationDate = LocalDateTime.parse(member.substring(dateSeparator + 1, laneSeparator), DATE_FORMAT);
+        int lane = Integer.parseInt(member.substring(laneSeparator + 1));
+
+        long totalNOP;
+        try {
+            totalNOP = festivalCache.get(festivalId).availableNOP();
+        } catch (BusinessException e) {
+            // 삭제된 공연
+            stringRedisTemplate.opsForSet().remove(ACTIVE_QUEUES_KEY, member);
+            return;
+        }
+        int laneCount = waitingQueueKeyGenerator.getLaneCount(totalNOP);
+        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate, lane, laneCount);
+        if (scheduledTasks.containsKey(waitingQueueKey)) {
+            return;
+        }
+        if (lane >= laneCount || waitingQueueRedisService.getWaitingUserCount(waitingQueueKey) == 0) {
+            stringRedisTemplate.opsForSet().remove(ACTIVE_QUEUES_KEY, member);
+            return;
+        }
+        startScheduler(festivalId, reservationDate, lane, laneCount, totalNOP);
+    }
+
+    private void registerActiveQueue(String festivalId, LocalDateTime reservationDate, int lane) {
+        try {
+            stringRedisTemplate.opsForSet().add(ACTIVE_QUEUES_KEY, toActiveQueueMember(festivalId, reservationDate, lane));
+        } catch (RedisConnectionFailureException | RedisSystemException e) {
+            // 다른 노드는 리더 장애 전까지 이어받을 필요가 없으므로 로그만 남기고 다음 리더 주기에 다시 등록
+            log.warn("Failed to register active waiting queue {} {}: {}", festivalId, reservationDate, e.getMessage());
+        }
+    }
+
+    private String toActiveQueueMember(String festivalId, LocalDateTime reservationDate, int lane) {
+        return festivalId + ":" + reservationDate.format(DATE_FORMAT) + ":" + lane;
+    }
+
+    /// 자리가 비었음을 모든 노드에 알림 (대기열 리더 노드가 즉시 입장 처리)
+    public void requestWakeUp(String waitingQueueKey, AdmissionWakeUpReason reason) {
+        Counter.builder("waiting.queue.wakeup")
+                .description("대기열 입장 처리 즉시 실행 요청")
+                .tag("reason", reason.name())
+                .register(meterRegistry)
+                .increment();
+        try {
+            stringRedisTemplate.convertAndSend(WAKE_UP_CHANNEL, reason.name() + "|" + waitingQueueKey);
+        } catch (RedisConnectionFailureException | RedisSystemException e) {
+            // 발행 실패 시에도 다음 주기에 처리되므로 로그만 남김
+            log.warn("Failed to publish wake-up for queue {}: {}", waitingQueueKey, e.getMessage());
+        }
+    }
+
+    /// 이 노드에서 돌고 있는 대기열이면 다음 주기를 기다리지 않고 바로 실행
+    public synchronized void wakeUp(String waitingQueueKey) {
+        QueueTask task = scheduledTasks.get(waitingQueueKey);
+        if (task == null) {
+            return;
+        }
+        task.delayMillis = minTickMillis;
+        if (task.running) {
+            task.wakeRequested = true;
+            return;
+        }
+        if (task.future != null) {
+            task.future.cancel(false);
+        }
+        schedule(task, 0);
+    }
+
+    private void runTick(QueueTask task) {
+        synchronized (this) {
+            if (task.stopped) {
+                return;
+            }
+            if (task.running) { // 이미 실행 중이면 끝난 직후 한 번 더 실행
+                task.wakeRequested = true;
                 return;
             }
+            task.running = true;
+            task.wakeRequested = false;
+        }
+        boolean changed = false;
+        try {
+            changed = runSchedulerLogic(task);
+        } catch (BusinessException e) {
+            log.warn("Scheduler tick failed for queue {}: {}", task.waitingQueueKey, e.getMessage());
+        } finally {
+            scheduleNext(task, changed);
+        }
+    }
+
+    /// 변화가 있으면 최소 주기로, 없으면 최대 주기까지 2배씩 늘림
+    private synchronized void scheduleNext(QueueTask task, boolean changed) {
+        task.running = false;
+        if (task.stopped) {
+            return;
+        }
+        if (changed || task.wakeRequested) {
+            task.delayMillis = minTickMillis;
+        } else {
+            task.delayMillis = Math.min(task.delayMillis * 2, maxTickMillis);
+        }
+        schedule(task, task.wakeRequested ? 0 : task.delayMillis);
+    }
+
+    private void schedule(QueueTask task, long delayMillis) {
+        tickInterval.record(delayMillis);
+        task.future = scheduler.schedule(() -> runTick(task), Instant.now().plusMillis(delayMillis));
+    }
+
+    /**
+     * 대기열 순번 발행 및 입장 처리
+     * @return true = 입장 처리 또는 대기 인원 변화가 있었음
+     */
+    private boolean runSchedulerLogic(QueueTask task) {
+        String waitingQueueKey = task.waitingQueueKey;
+        try {
+            long waitingCount = waitingQueueRedisService.getWaitingUserCount(waitingQueueKey);
+            if (waitingCount == 0) {
+                stopScheduler(waitingQueueKey);
+                stringRedisTemplate.opsForSet().remove(ACTIVE_QUEUES_KEY,
+                        toActiveQueueMember(task.festivalId, task.reservationDate, task.lane));
+                return false;
+            }
 
-            for (String loginId : waitingUsers) {
-                try {
-                    waitingNotificationService.getAndPublishWaitingNumber(waitingQueueKey, notificationChannelKey, loginId);
-                } catch (BusinessException e) {
-                    log.warn("Failed to notify waiting number for user {}: {}", loginId, e.getMessage());
-                }
+            // 같은 대기열은 lease를 가진 노드 하나만 입장 처리 (나머지 노드는 리더 장애 시 이어받기 위해 대기)
+            if (!leaderLeaseService.tryAcquireOrRenew(waitingQueueKey + LEADER_SUFFIX, Duration.ofMillis(leaseMillis))) {
+                task.lastRateSampleAt = 0; // 다시 리더가 되면 Redis 측정값부터 이어서 계산
+                return false;
             }
+            // 대기자가 없어 목록에서 빠진 사이 다른 노드로 새 대기자가 들어온 경우 대비 (SADD 멱등)
+            registerActiveQueue(task.festivalId, task.reservationDate, task.lane);
 
-            long currentBookingCount = waitingQueueRedisService.getBookingUserCount(bookingUsersKey);
+            // heartbeat가 끊긴 예매 페이지 사용자 정리 → 같은 주기에 바로 다음 대기자 입장
+            List<String> evictedUsers = evictIdleBookingUsers(task);
 
-            while (currentBookingCount < availableNOP) {
-                String nextUser = waitingQueueRedisService.getFirstUserInQueue(waitingQueueKey);
-                if (nextUser == null) {
-                    break;
-                }
+            // 빈 자리만큼 한 번에 입장 처리 (Lua, 초당 입장 인원 제한 포함)
+            List<String> admittedUsers = waitingQueueRedisService.admitUsers(
+                    waitingQueueKey, task.bookingUsersKey, getAdmissionCapacity(task),
+                    admissionRateService.getAdmissionRate(task.festivalId, task.lane, task.laneCount));
+            if (!admittedUsers.isEmpty()) {
+                log.info("Users {} moved from waiting queue to booking users for queue {}", admittedUsers, waitingQueueKey);
+            }
 
-                boolean removed = waitingQueueRedisService.removeUserFromQueue(waitingQueueKey, nextUser);
-                if (!removed) {
-                    throw new BusinessException(ErrorCode.FAILED_TO_REMOVE_USER);
-                }
+            updateAdmissionRate(task, admittedUsers.size());
 
-                waitingQueueRedisService.addBookingUser(bookingUsersKey, nextUser);
-                log.info("User {} moved from waiting queue to booking users for queue {}", nextUser, waitingQueueKey);
+            boolean changed = !admittedUsers.isEmpty() || !evictedUsers.isEmpty() || waitingCount != task.lastWaitingCount;
+            task.lastWaitingCount = waitingCount;
 
-                waitingNotificationService.notifyAllWaitingUsers(waitingQueueKey, notificationChannelKey);
-                currentBookingCount++;
+            // 변화가 있을 때만 남은 대기자 순번 발행 (브로드캐스트 모드는 선두 sequence 1건)
+            if (changed) {
+                waitingNotificationService.notifyAllWaitingUsers(waitingQueueKey, task.notificationChannelKey);
             }
+            return changed;
         } catch (RedisConnectionFailureException e) {
             throw new BusinessException(ErrorCode.REDIS_CONNECTION_FAILED);
         } catch (RedisSystemException e) {
@@ -92,8 +327,78 @@ public class WaitingQueueSchedulingService {
         }
     }
 
+    /**
+     * 이번 주기의 예매 페이지 정원 : lane 정원이 다 찼으면 다른 lane의 남는 자리를 빌림
+     *  - 빌릴 수 있는 자리 = 전체 정원 - 모든 lane의 예매 페이지 인원 - 대기자가 있는 다른 lane의 남은 정원
+     *  - 빌려서 입장한 사용자도 이 lane Set에 들어가 전체 인원 합계에 잡히므로 같은 자리를 두 번 빌려주지 않음
+     *  - lane마다 slot이 달라 Lua 하나로 묶을 수 없음 → 빌려준 lane에 그 사이 바로 입장한 사용자만큼은
+     *    잠시 전체 정원을 넘을 수 있음 (빌린 사용자가 나가면 해소)
+     */
+    private long getAdmissionCapacity(QueueTask task) {
+        if (task.laneCount <= 1) {
+            return task.availableNOP;
+        }
+        long bookingCount = waitingQueueRedisService.getBookingUserCount(task.bookingUsersKey);
+        if (bookingCount < task.availableNOP) {
+            return task.availableNOP;
+        }
+        long free = task.totalNOP - bookingCount;
+        for (int lane = 0; lane < task.laneCount; lane++) {
+            if (lane == task.lane) {
+                continue;
+            }
+            long laneBookingCount = waitingQueueRedisService.getBookingUserCount(
+                    waitingQueueKeyGenerator.getBookingUsersKey(task.festivalId, task.reservationDate, lane, task.laneCount));
+            free -= laneBookingCount;
+            long laneWaitingCount = waitingQueueRedisService.getWaitingUserCount(
+                    waitingQueueKeyGenerator.getWaitingQueueKey(task.festivalId, task.reservationDate, lane, task.laneCount));
+            if (laneWaitingCount > 0) {
+                // 대기자가 있는 lane의 남은 정원은 그 lane 몫
+                free -= Math.max(0, waitingQueueKeyGenerator.getLaneCapacity(task.totalNOP, lane) - laneBookingCount);
+            }
+        }
+        return bookingCount + Math.max(0, free);
+    }
+
+    /// 초당 입장 인원 EWMA 갱신 → Redis에 저장 (대기 순번 알림의 예상 대기 시간 계산용)
+    /// 입장 처리 주기가 가변이므로 경과 시간에 맞춰 가중치 계산 (alpha = 1 - e^(-경과/window))
+    private void updateAdmissionRate(QueueTask task, int admittedCount) {
+        long now = System.currentTimeMillis();
+        if (task.lastRateSampleAt == 0) {
+            // 리더가 바뀐 경우 이전 리더의 측정값부터 이어서 계산
+            task.admissionRate = waitingQueueRedisService.getAdmissionRateEstimate(task.waitingQueueKey);
+        } else {
+            long elapsed = now - task.lastRateSampleAt;
+            if (elapsed <= 0) {
+                return;
+            }
+            double sample = admittedCount * 1000.0 / elapsed;
+            double alpha = 1 - Math.exp(-(double) elapsed / ewmaWindowMillis);
+            task.admissionRate += alpha * (sample - task.admissionRate);
+            waitingQueueRedisService.saveAdmissionRateEstimate(task.waitingQueueKey, task.admissionRate);
+        }
+        task.lastRateSampleAt = now;
+    }
+
+    private List<String> evictIdleBookingUsers(QueueTask task) {
+        if (idleTimeoutMillis <= 0) {
+            return List.of();
+        }
+        List<String> evictedUsers = waitingQueueRedisService.evictIdleBookingUsers(task.bookingUsersKey, Duration.ofMillis(idleTimeoutMillis));
+        if (!evictedUsers.isEmpty()) {
+            log.info("Evicted idle booking users {} from {}", evictedUsers, task.bookingUsersKey);
+            Counter.builder("waiting.queue.evicted")
+                    .description("heartbeat가 끊겨 퇴장 처리된 예매 페이지 사용자 수")
+                    .register(meterRegistry)
+                    .increment(evictedUsers.size());
+        }
+        return evictedUsers;
+    }
+
     @PreDestroy
     public void cleanup() {
+        // 종료 전 lease 반납 → 다른 노드가 TTL 만료를 기다리지 않고 바로 이어받음
+        scheduledTasks.keySet().forEach(key -> leaderLeaseService.release(key + LEADER_SUFFIX));
         scheduler.shutdown();
     }
 }
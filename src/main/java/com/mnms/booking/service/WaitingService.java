@@ -1,11 +1,17 @@
 package com.mnms.booking.service;
 
+import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import com.mnms.booking.enums.AdmissionWakeUpReason;
 import com.mnms.booking.exception.BusinessException;
 import com.mnms.booking.exception.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -16,58 +22,113 @@ public class WaitingService {
     private final WaitingQueueSchedulingService waitingQueueSchedulingService;
     private final WaitingNotificationService waitingNotificationService;
     private final WaitingQueueKeyGenerator waitingQueueKeyGenerator;
+    private final AdmissionRateService admissionRateService;
+    private final FestivalCache festivalCache;
+    private final PendingWaitingNumberStore pendingWaitingNumberStore;
 
-    /// 사용자 대기열 진입 처리
-    public long enterWaitingQueue(String festivalId, LocalDateTime reservationDate, String userId, long availableNOP) {
-        String bookingUsersKey = waitingQueueKeyGenerator.getBookingUsersKey(festivalId, reservationDate);
-        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate);
-        String notificationChannelKey = waitingQueueKeyGenerator.getNotificationChannelKey(festivalId, reservationDate);
-
-        boolean entered = waitingQueueRedisService.tryEnterBooking(bookingUsersKey, availableNOP, userId);
-
-        if (entered) {
-            log.info("User {} entered booking page immediately.", userId);
-            return 0L; // 즉시 입장
-        } else { // 대기열 입장
-            boolean added = waitingQueueRedisService.addUserToQueue(waitingQueueKey, userId);
-            if (!added) {
-                throw new BusinessException(ErrorCode.FAILED_TO_ENTER_QUEUE);
+    /// 사용자 대기열 진입 처리 (waitingNumber 0 = 즉시 입장)
+    public WaitingNumberResponseDTO enterWaitingQueue(String festivalId, LocalDateTime reservationDate, String userId, long availableNOP) {
+        int laneCount = waitingQueueKeyGenerator.getLaneCount(availableNOP);
+        int lane = waitingQueueKeyGenerator.getLane(userId, laneCount);
+        long laneNOP = waitingQueueKeyGenerator.getLaneCapacity(availableNOP, lane);
+        String bookingUsersKey = waitingQueueKeyGenerator.getBookingUsersKey(festivalId, reservationDate, lane, laneCount);
+        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate, lane, laneCount);
+        String notificationChannelKey = waitingQueueKeyGenerator.getNotificationChannelKey(festivalId, reservationDate, lane, laneCount);
+
+        // 예매 페이지 / 대기열 확인 + 입장 or 번호표 발급을 Lua 1회로 처리 (새로고침 시 상태 변경 없음)
+        // 즉시 입장도 초당 입장 인원 제한(token bucket)을 함께 적용
+        WaitingQueueRedisService.EntryState state = waitingQueueRedisService.enter(bookingUsersKey, waitingQueueKey, laneNOP, userId,
+                admissionRateService.getAdmissionRate(festivalId, lane, laneCount));
+
+        if (state.booking()) {
+            if (state.created()) {
+                log.info("User {} entered booking page immediately.", userId);
             }
-            log.info("User {} added to waiting queue {}.", userId, waitingQueueKey);
+            return WaitingNumberResponseDTO.builder()
+                    .userId(userId)
+                    .waitingNumber(0) // 즉시 입장
+                    .lane(lane)
+                    .immediateEntry(true)
+                    .build();
+        }
+
+        // lane마다 독립된 스케줄러(리더)가 lane 정원만큼 입장 처리 (이 노드에 이미 있으면 무시)
+        waitingQueueSchedulingService.startScheduler(festivalId, reservationDate, lane, laneCount, availableNOP);
 
-            waitingQueueSchedulingService.startScheduler(waitingQueueKey, bookingUsersKey, notificationChannelKey, availableNOP);
-            return waitingNotificationService.getAndPublishWaitingNumber(waitingQueueKey, notificationChannelKey, userId);
+        WaitingNumberResponseDTO response = waitingNotificationService.toWaitingNumberDto(userId, state.position(), state.admissionRate());
+        response.setLane(lane);
+        if (state.created()) {
+            log.info("User {} added to waiting queue {}.", userId, waitingQueueKey);
+            // WebSocket 구독 전이면 마지막 순번으로 보관되었다가 구독 시 전달 (보관은 /enter를 받은 이 노드만)
+            pendingWaitingNumberStore.expect(userId);
+            waitingNotificationService.publishWaitingNumber(response, notificationChannelKey);
         }
+        return response;
     }
 
     /// 예매 페이지에서 사용자 퇴장 처리 (예매 완료 또는 타임아웃)
     public boolean userExitBookingPage(String festivalId, LocalDateTime reservationDate, String userId) {
-        String bookingUsersKey = waitingQueueKeyGenerator.getBookingUsersKey(festivalId, reservationDate);
-        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate);
-        waitingQueueRedisService.removeBookingUser(bookingUsersKey, userId);
+        return userExitBookingPage(festivalId, reservationDate, userId, AdmissionWakeUpReason.BOOKING_EXIT);
+    }
+
+    public boolean userExitBookingPage(String festivalId, LocalDateTime reservationDate, String userId, AdmissionWakeUpReason reason) {
+        usersExitBookingPage(festivalId, reservationDate, List.of(userId), reason);
+        return true;
+    }
 
-        log.info("User {} exited booking page and removed from booking user set.", userId);
+    /// 여러 사용자 퇴장 처리 (가예매 만료 일괄 처리용) : lane별로 한 번에 제거하고 정리/입장 처리도 lane별 1회
+    public void usersExitBookingPage(String festivalId, LocalDateTime reservationDate, Collection<String> userIds, AdmissionWakeUpReason reason) {
+        int laneCount = getLaneCount(festivalId);
+        Map<Integer, List<String>> usersByLane = userIds.stream()
+                .collect(Collectors.groupingBy(userId -> waitingQueueKeyGenerator.getLane(userId, laneCount)));
 
-        // 예약자 Set이 비어 있는지 확인
-        long booking_remaining = waitingQueueRedisService.getBookingUserCount(bookingUsersKey);
-        long waiting_remaining = waitingQueueRedisService.getWaitingUserCount(waitingQueueKey);
+        usersByLane.forEach((lane, users) -> {
+            String bookingUsersKey = waitingQueueKeyGenerator.getBookingUsersKey(festivalId, reservationDate, lane, laneCount);
+            String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate, lane, laneCount);
+            waitingQueueRedisService.removeBookingUsers(bookingUsersKey, users);
 
-        if (booking_remaining == 0) {
-            // 대기열도 비어 있으면 키 삭제
-            waitingQueueRedisService.cleanKey(bookingUsersKey);
-            log.info("Cleaned up all Booking Redis keys for festival {}.", bookingUsersKey);
-        }
-        if(waiting_remaining == 0) {
-            waitingQueueRedisService.cleanKey(waitingQueueKey);
-            log.info("Cleaned up all Waiting Redis keys for festival {}.", waitingQueueKey);
+            log.info("Users {} exited booking page and removed from booking user set.", users);
+
+            // 예약자 Set이 비어 있는지 확인
+            long booking_remaining = waitingQueueRedisService.getBookingUserCount(bookingUsersKey);
+            long waiting_remaining = waitingQueueRedisService.getWaitingUserCount(waitingQueueKey);
+
+            if (booking_remaining == 0) {
+                // 대기열도 비어 있으면 키 삭제
+                waitingQueueRedisService.cleanKey(bookingUsersKey);
+                log.info("Cleaned up all Booking Redis keys for festival {}.", bookingUsersKey);
+            }
+            if(waiting_remaining == 0) {
+                waitingQueueRedisService.cleanKey(waitingQueueKey);
+                log.info("Cleaned up all Waiting Redis keys for festival {}.", waitingQueueKey);
+            } else {
+                // 빈 자리 → 대기열 입장 처리 즉시 실행
+                waitingQueueSchedulingService.requestWakeUp(waitingQueueKey, reason);
+            }
+        });
+    }
+
+    /// 예매 단계 요청 검증 : 대기열을 거쳐 예매 페이지에 입장한 사용자만 허용
+    ///  (heartbeat 미수신/가예매 만료로 퇴장 처리된 사용자가 계속 예매하면 반환한 자리가 이중으로 쓰임)
+    public void validateBookingUser(String festivalId, LocalDateTime reservationDate, String userId) {
+        String bookingUsersKey = getBookingUsersKey(festivalId, reservationDate, userId);
+        if (!waitingQueueRedisService.isBookingUser(bookingUsersKey, userId)) {
+            throw new BusinessException(ErrorCode.USER_NOT_FOUND_IN_BOOKING);
         }
-        return true;
+    }
+
+    /// 예매 페이지 사용자 heartbeat (false = 이미 퇴장 처리되어 예매 페이지 사용자가 아님)
+    public boolean heartbeat(String festivalId, LocalDateTime reservationDate, String userId) {
+        String bookingUsersKey = getBookingUsersKey(festivalId, reservationDate, userId);
+        return waitingQueueRedisService.touchBookingUser(bookingUsersKey, userId);
     }
 
     /// 특정 사용자가 대기열에서 이탈했음을 처리
     public boolean removeUserFromQueue(String festivalId, LocalDateTime reservationDate, String userId) {
-        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate);
-        String notificationChannelKey = waitingQueueKeyGenerator.getNotificationChannelKey(festivalId, reservationDate);
+        int laneCount = getLaneCount(festivalId);
+        int lane = waitingQueueKeyGenerator.getLane(userId, laneCount);
+        String waitingQueueKey = waitingQueueKeyGenerator.getWaitingQueueKey(festivalId, reservationDate, lane, laneCount);
+        String notificationChannelKey = waitingQueueKeyGenerator.getNotificationChannelKey(festivalId, reservationDate, lane, laneCount);
 
         Long removedRank = waitingQueueRedisService.getRank(waitingQueueKey, userId);
         boolean removed = waitingQueueRedisService.removeUserFromQueue(waitingQueueKey, userId);
@@ -79,4 +140,15 @@ public class WaitingService {
         waitingNotificationService.notifyAffectedWaitingUsers(waitingQueueKey, notificationChannelKey, removedRank);
         return true;
     }
-}
\ No newline at end of file
+
+    /// 공연 수용 인원 기준 lane 수 (진입 시와 같은 값이어야 같은 키를 가리킴)
+    private int getLaneCount(String festivalId) {
+        return waitingQueueKeyGenerator.getLaneCount(festivalCache.get(festivalId).availableNOP());
+    }
+
+    private String getBookingUsersKey(String festivalId, LocalDateTime reservationDate, String userId) {
+        int laneCount = getLaneCount(festivalId);
+        return waitingQueueKeyGenerator.getBookingUsersKey(festivalId, reservationDate,
+                waitingQueueKeyGenerator.getLane(userId, laneCount), laneCount);
+    }
+}
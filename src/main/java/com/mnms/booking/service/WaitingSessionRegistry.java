@@ -0,0 +1,47 @@
+package com.mnms.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// 이 노드에 연결된 사용자별 STOMP 세션 목록 (대기 순번 전달 시 SimpUserRegistry 순회 없이 조회)
+@Component
+@Slf4j
+public class WaitingSessionRegistry {
+
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (user == null || sessionId == null) {
+            return;
+        }
+        sessionsByUser.computeIfAbsent(user.getName(), k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        if (user == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(user.getName(), (userId, sessions) -> {
+            sessions.remove(event.getSessionId());
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public Set<String> getSessionIds(String userId) {
+        return sessionsByUser.getOrDefault(userId, Set.of());
+    }
+}
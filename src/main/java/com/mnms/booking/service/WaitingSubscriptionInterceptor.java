@@ -0,0 +1,41 @@
+package com.mnms.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/// /user/queue/waitingNumber 구독이 broker에 등록된 직후 보관 중인 순번 전달
+///  - UserDestinationMessageHandler가 SUBSCRIBE를 세션 목적지로 바꿔 brokerChannel(동기)로 넘긴 뒤 호출됨
+///    → SimpleBroker 구독 등록이 끝난 시점이므로 지연 전송 없이 바로 보내도 유실되지 않음
+///  - RedisMessageSubscriber → SimpMessagingTemplate → clientInboundChannel 순환을 피하려고 지연 조회
+@Component
+@RequiredArgsConstructor
+public class WaitingSubscriptionInterceptor implements ExecutorChannelInterceptor {
+
+    private static final String USER_DESTINATION = "/user/queue/waitingNumber";
+
+    private final ObjectProvider<RedisMessageSubscriber> redisMessageSubscriber;
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (ex != null || !(handler instanceof UserDestinationMessageHandler)) {
+            return;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        Principal user = accessor.getUser();
+        if (!StompCommand.SUBSCRIBE.equals(accessor.getCommand()) || user == null
+                || !USER_DESTINATION.equals(accessor.getDestination())) {
+            return;
+        }
+        redisMessageSubscriber.getObject().flushPending(user.getName(), accessor.getSessionId());
+    }
+}
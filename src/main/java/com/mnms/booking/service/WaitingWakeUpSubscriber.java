@@ -0,0 +1,30 @@
+package com.mnms.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/// waiting_wakeup 채널 구독 : 다른 노드에서 자리가 비었을 때 이 노드의 대기열 입장 처리를 즉시 실행
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WaitingWakeUpSubscriber implements MessageListener {
+
+    private final WaitingQueueSchedulingService waitingQueueSchedulingService;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // "{reason}|{waitingQueueKey}"
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0) {
+            log.warn("Invalid wake-up message: {}", body);
+            return;
+        }
+        waitingQueueSchedulingService.wakeUp(body.substring(separator + 1));
+    }
+}
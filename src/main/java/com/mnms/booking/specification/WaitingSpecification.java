@@ -188,6 +188,46 @@ public interface WaitingSpecification {
 
 
 
+    @Operation(
+            summary = "예매 페이지 체류 heartbeat",
+            description = "예매 페이지에 있는 사용자가 주기적으로 호출합니다. " +
+                    "일정 시간 heartbeat가 없으면 예매 페이지에서 자동 퇴장되고 다음 대기자가 입장합니다. " +
+                    "STOMP로는 /app/queue/reservation/heartbeat 로 보낼 수 있습니다."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "heartbeat 갱신 성공",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SuccessResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "예매 사용자 목록에 없음 (이미 퇴장 처리됨)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SuccessResponse.class),
+                            examples = @ExampleObject(
+                                    value = """
+                                {
+                                  "success": false,
+                                  "data": null,
+                                  "message": "해당 사용자는 예매 사용자 목록에 없습니다."
+                                }
+                                """
+                            )
+                    )
+            )
+    })
+    ResponseEntity<SuccessResponse<String>> heartbeat(
+            @Parameter(description = "페스티벌 ID", required = true, example = "festival-001")
+            @RequestParam String festivalId,
+
+            @Parameter(description = "예매 날짜 및 시간", required = true, example = "2025-09-10T18:30:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime reservationDate,
+
+            @Parameter(hidden = true)
+            Authentication authentication
+    );
+
 
     @Operation(
             summary = "대기열 퇴장",
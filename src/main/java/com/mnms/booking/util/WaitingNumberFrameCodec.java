@@ -0,0 +1,86 @@
+package com.mnms.booking.util;
+
+import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/// 대기 순번 Redis Pub/Sub 프레임 (JSON 대신 고정 레이아웃 바이너리, JSON 변환은 STOMP 전송 시 1회만)
+///  header : [magic 1B][version 1B][count 4B]
+///  entry  : [userId 길이 2B][userId UTF-8][waitingNumber 8B][joinSequence 8B]
+///           [estimatedWaitSeconds 4B][pollIntervalMillis 4B][flags 1B] × count
+public final class WaitingNumberFrameCodec {
+
+    private static final byte MAGIC = 0x57; // 'W' (JSON 메시지는 '{' 또는 '['로 시작)
+    private static final byte VERSION = 2;
+    private static final int HEADER_SIZE = 6;
+    private static final int FIXED_ENTRY_SIZE = 2 + 8 + 8 + 4 + 4 + 1;
+    private static final byte FLAG_IMMEDIATE_ENTRY = 0x01;
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void visit(String userId, long waitingNumber, long joinSequence,
+                   long estimatedWaitSeconds, long pollIntervalMillis, boolean immediateEntry);
+    }
+
+    private WaitingNumberFrameCodec() {
+    }
+
+    /// 호출 측 buffer에 인코딩 (용량이 부족할 때만 새로 할당, 반환된 buffer를 다음 호출에 재사용)
+    public static ByteBuffer encode(List<WaitingNumberResponseDTO> block, ByteBuffer buffer) {
+        buffer.clear();
+        buffer = ensureCapacity(buffer, HEADER_SIZE);
+        buffer.put(MAGIC).put(VERSION).putInt(block.size());
+        for (WaitingNumberResponseDTO dto : block) {
+            byte[] userId = dto.getUserId().getBytes(StandardCharsets.UTF_8);
+            buffer = ensureCapacity(buffer, FIXED_ENTRY_SIZE + userId.length);
+            buffer.putShort((short) userId.length)
+                    .put(userId)
+                    .putLong(dto.getWaitingNumber())
+                    .putLong(dto.getJoinSequence())
+                    .putInt((int) Math.min(Integer.MAX_VALUE, dto.getEstimatedWaitSeconds()))
+                    .putInt((int) Math.min(Integer.MAX_VALUE, dto.getPollIntervalMillis()))
+                    .put(dto.isImmediateEntry() ? FLAG_IMMEDIATE_ENTRY : 0);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    public static boolean isFrame(byte[] payload) {
+        return payload.length >= HEADER_SIZE && payload[0] == MAGIC;
+    }
+
+    /// 중간 객체(DTO 목록, JSON 트리) 없이 항목마다 visitor 호출, 처리한 항목 수 반환
+    public static int decode(byte[] payload, EntryVisitor visitor) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        byte magic = buffer.get();
+        byte version = buffer.get();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IllegalArgumentException("Unsupported waiting number frame");
+        }
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getShort() & 0xFFFF;
+            String userId = new String(payload, buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            long waitingNumber = buffer.getLong();
+            long joinSequence = buffer.getLong();
+            long estimatedWaitSeconds = buffer.getInt();
+            long pollIntervalMillis = buffer.getInt();
+            boolean immediateEntry = (buffer.get() & FLAG_IMMEDIATE_ENTRY) != 0;
+            visitor.visit(userId, waitingNumber, joinSequence, estimatedWaitSeconds, pollIntervalMillis, immediateEntry);
+        }
+        return count;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int needed) {
+        if (buffer.remaining() >= needed) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,172 @@
+package com.mnms.booking.config;
+
+import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import com.mnms.booking.security.StompConnectInterceptor;
+import com.mnms.booking.service.RedisMessageSubscriber;
+import com.mnms.booking.service.WaitingSubscriptionInterceptor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.Mockito;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/// RELAY 모드 노드 간 전달 확인 (외부 STOMP 브로커 필요, 기본 실행 제외)
+///  RELAY_BROKER=localhost:61613 ./gradlew test --tests '*WebSocketRelayTest'
+///  - 노드 A, B를 같은 브로커에 연결해 띄우고 B에 연결한 세션이 /user/queue/waitingNumber 구독
+///  - A에서 convertAndSendToUser → A는 사용자를 모름 → /topic/unresolved-user 로 중계 → B가 세션 목적지로 변환해 전달
+@EnabledIfEnvironmentVariable(named = "RELAY_BROKER", matches = ".+")
+class WebSocketRelayTest {
+
+    private static final String USER_ID = "relay-user";
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+    private static WebSocketStompClient stompClient;
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            JacksonAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class,
+            WebSocketMessagingAutoConfiguration.class
+    })
+    @Import({WebSocketConfig.class, StompConnectInterceptor.class, WaitingSubscriptionInterceptor.class})
+    static class RelayNode {
+
+        /// SIMPLE 모드 전용 보관 순번 전달 대상 (RELAY 모드에서는 보관하지 않음)
+        @Bean
+        RedisMessageSubscriber redisMessageSubscriber() {
+            return Mockito.mock(RedisMessageSubscriber.class);
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        nodeA = startNode();
+        nodeB = startNode();
+        awaitBrokerAvailable(nodeA);
+        awaitBrokerAvailable(nodeB);
+
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void messageSentOnNodeAReachesSessionOnNodeB() throws Exception {
+        CompletableFuture<WaitingNumberResponseDTO> received = new CompletableFuture<>();
+        StompSession session = connect(nodeB);
+        session.subscribe("/user/queue/waitingNumber", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return WaitingNumberResponseDTO.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.complete((WaitingNumberResponseDTO) payload);
+            }
+        });
+
+        WaitingNumberResponseDTO dto = WaitingNumberResponseDTO.builder()
+                .userId(USER_ID)
+                .waitingNumber(7)
+                .joinSequence(107)
+                .estimatedWaitSeconds(3)
+                .pollIntervalMillis(2000)
+                .build();
+
+        // 구독이 브로커에 등록되기 전 보낸 메시지는 버려지므로 받을 때까지 재전송
+        SimpMessagingTemplate messagingTemplate = nodeA.getBean(SimpMessagingTemplate.class);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!received.isDone() && System.currentTimeMillis() < deadline) {
+            messagingTemplate.convertAndSendToUser(USER_ID, "/queue/waitingNumber", dto);
+            try {
+                received.get(500, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // 다시 전송
+            }
+        }
+
+        assertThat(received).isCompletedWithValue(dto);
+        session.disconnect();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        String[] hostPort = System.getenv("RELAY_BROKER").split(":");
+        return new SpringApplicationBuilder(RelayNode.class).run(
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--server.address=127.0.0.1",
+                "--spring.devtools.restart.enabled=false",
+                "--websocket.broker.mode=RELAY",
+                "--websocket.broker.relay.host=" + hostPort[0],
+                "--websocket.broker.relay.port=" + hostPort[1]);
+    }
+
+    private static void awaitBrokerAvailable(ConfigurableApplicationContext node) throws InterruptedException {
+        AbstractBrokerMessageHandler relay = node.getBean("stompBrokerRelayMessageHandler", AbstractBrokerMessageHandler.class);
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!relay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(relay.isBrokerAvailable()).isTrue();
+    }
+
+    private static StompSession connect(ConfigurableApplicationContext node) throws Exception {
+        int port = ((ServletWebServerApplicationContext) node).getWebServer().getPort();
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("X-User-Id", USER_ID);
+        connectHeaders.add("X-User-Role", "ROLE_USER");
+        return stompClient.connectAsync("ws://127.0.0.1:{port}/ws", new WebSocketHttpHeaders(), connectHeaders,
+                new StompSessionHandlerAdapter() {}, port).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,133 @@
+package com.mnms.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mnms.booking.enums.WaitingNotificationMode;
+import com.mnms.booking.enums.WebSocketBrokerMode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/// 대기 순번 일괄 조회/알림 측정 (실제 Redis 필요, 기본 실행 제외)
+///  BENCHMARK_REDIS=localhost:6379 ./gradlew test --tests '*WaitingNotificationBenchmarkTest'
+///  - 사용자별 Lua 조회(getQueuePosition) vs window 단위 pipeline 조회(getQueuePositions) 소요 시간 비교 + 결과 일치 확인
+///  - 전체 대기자 알림(notifyAllWaitingUsers) 소요 시간 (window마다 채널 메시지 1건)
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_REDIS", matches = ".+")
+class WaitingNotificationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingNotificationBenchmarkTest.class);
+
+    private static final int USERS = 50_000;
+    private static final int WINDOW_SIZE = 500;
+    private static final int TOMBSTONE_EVERY = 100; // 100명 중 1명은 대기열 이탈
+    private static final String QUEUE_KEY = "waiting_queue:{benchmark:202601010000}";
+    private static final String CHANNEL_KEY = "waiting_notification/benchmark/202601010000";
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static WaitingQueueRedisService waitingQueueRedisService;
+    private static WaitingNotificationService waitingNotificationService;
+
+    @BeforeAll
+    static void setUp() {
+        String[] hostPort = System.getenv("BENCHMARK_REDIS").split(":");
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(hostPort[0], Integer.parseInt(hostPort[1])));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        waitingQueueRedisService = new WaitingQueueRedisService(redisTemplate);
+        waitingNotificationService = new WaitingNotificationService(redisTemplate, new ObjectMapper(),
+                waitingQueueRedisService, new WaitingQueueKeyGenerator(), new SimpMessagingTemplate((message, timeout) -> true));
+        ReflectionTestUtils.setField(waitingNotificationService, "notificationMode", WaitingNotificationMode.PER_USER);
+        ReflectionTestUtils.setField(waitingNotificationService, "brokerMode", WebSocketBrokerMode.SIMPLE);
+        ReflectionTestUtils.setField(waitingNotificationService, "windowSize", WINDOW_SIZE);
+        ReflectionTestUtils.setField(waitingNotificationService, "minPollMillis", 2000L);
+        ReflectionTestUtils.setField(waitingNotificationService, "maxPollMillis", 60000L);
+
+        deleteKeys();
+        fillQueue();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (connectionFactory != null) {
+            deleteKeys();
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void queuePositions() {
+        List<String> users = new ArrayList<>(USERS);
+        waitingQueueRedisService.forEachUserWindow(QUEUE_KEY, WINDOW_SIZE, users::addAll);
+
+        long start = System.nanoTime();
+        List<WaitingQueueRedisService.QueuePosition> single = new ArrayList<>(users.size());
+        for (String userId : users) {
+            single.add(waitingQueueRedisService.getQueuePosition(QUEUE_KEY, userId));
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<WaitingQueueRedisService.QueuePosition> batched = new ArrayList<>(users.size());
+        waitingQueueRedisService.forEachUserWindow(QUEUE_KEY, WINDOW_SIZE,
+                window -> batched.addAll(waitingQueueRedisService.getQueuePositions(QUEUE_KEY, window)));
+        long batchedNanos = System.nanoTime() - start;
+
+        report("getQueuePosition x " + users.size(), singleNanos);
+        report("getQueuePositions (window " + WINDOW_SIZE + ")", batchedNanos);
+        assertThat(batched).isEqualTo(single);
+        assertThat(batched.get(batched.size() - 1).waitingNumber()).isEqualTo(users.size());
+    }
+
+    @Test
+    void notifyAllWaitingUsers() {
+        long waiting = waitingQueueRedisService.getWaitingUserCount(QUEUE_KEY);
+
+        long start = System.nanoTime();
+        waitingNotificationService.notifyAllWaitingUsers(QUEUE_KEY, CHANNEL_KEY);
+        long nanos = System.nanoTime() - start;
+
+        report("notifyAllWaitingUsers (" + waiting + " users, " + (waiting + WINDOW_SIZE - 1) / WINDOW_SIZE + " messages)", nanos);
+    }
+
+    /// 번호표 1..USERS 발급 후 일부 이탈 (tombstone) → 실제 진입/이탈과 같은 키 구성
+    private static void fillQueue() {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] queueKey = QUEUE_KEY.getBytes(StandardCharsets.UTF_8);
+            for (int ticket = 1; ticket <= USERS; ticket++) {
+                connection.zSetCommands().zAdd(queueKey, ticket, ("user-" + ticket).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        redisTemplate.opsForValue().set(QUEUE_KEY + ":issued", String.valueOf(USERS));
+        for (int ticket = TOMBSTONE_EVERY; ticket <= USERS; ticket += TOMBSTONE_EVERY) {
+            waitingQueueRedisService.removeUserFromQueue(QUEUE_KEY, "user-" + ticket);
+        }
+    }
+
+    private static void deleteKeys() {
+        redisTemplate.delete(List.of(QUEUE_KEY, QUEUE_KEY + ":issued", QUEUE_KEY + ":served",
+                QUEUE_KEY + ":tombstones", QUEUE_KEY + ":rate"));
+    }
+
+    private static void report(String name, long nanos) {
+        log.info("{} : {} ms", name, String.format("%.1f", nanos / 1_000_000.0));
+    }
+}
@@ -0,0 +1,118 @@
+package com.mnms.booking.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/// 대기 순번 묶음 직렬화 비교 : 바이너리 프레임 vs JSON 배열 (기본 실행 제외)
+///  BENCHMARK_CODEC=1 ./gradlew test --tests '*WaitingNumberFrameCodecBenchmarkTest'
+///  - 알림 window 한 묶음(WINDOW_SIZE명)을 ROUNDS회 인코딩/디코딩, WARMUP_ROUNDS는 JIT 예열용으로 측정 제외
+///  - 프레임 크기(byte)와 소요 시간 기록 + 두 방식 디코딩 결과가 원본과 같은지 확인
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_CODEC", matches = ".+")
+class WaitingNumberFrameCodecBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingNumberFrameCodecBenchmarkTest.class);
+
+    private static final int WINDOW_SIZE = 500;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int ROUNDS = 10_000;
+    private static final TypeReference<List<WaitingNumberResponseDTO>> BLOCK_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<WaitingNumberResponseDTO> block = block();
+
+    @Test
+    void frameVsJson() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            buffer = frameRound(buffer);
+            jsonRound();
+        }
+
+        long start = System.nanoTime();
+        long frameBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            buffer = frameRound(buffer);
+            frameBytes = buffer.remaining();
+        }
+        long frameNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long jsonBytes = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            jsonBytes = jsonRound();
+        }
+        long jsonNanos = System.nanoTime() - start;
+
+        report("frame encode+decode", frameNanos, frameBytes);
+        report("json encode+decode", jsonNanos, jsonBytes);
+
+        assertThat(decodeFrame(toBytes(WaitingNumberFrameCodec.encode(block, buffer)))).isEqualTo(block);
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(block), BLOCK_TYPE)).isEqualTo(block);
+    }
+
+    /// 발행(encode) + 수신 노드의 항목별 DTO 생성(decode)까지 포함
+    private ByteBuffer frameRound(ByteBuffer buffer) {
+        ByteBuffer frame = WaitingNumberFrameCodec.encode(block, buffer);
+        assertThat(decodeFrame(toBytes(frame))).hasSize(WINDOW_SIZE);
+        return frame;
+    }
+
+    private long jsonRound() throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(block);
+        assertThat(objectMapper.readValue(json, BLOCK_TYPE)).hasSize(WINDOW_SIZE);
+        return json.length;
+    }
+
+    private static List<WaitingNumberResponseDTO> decodeFrame(byte[] frame) {
+        List<WaitingNumberResponseDTO> decoded = new ArrayList<>(WINDOW_SIZE);
+        WaitingNumberFrameCodec.decode(frame, (userId, waitingNumber, joinSequence,
+                estimatedWaitSeconds, pollIntervalMillis, immediateEntry) ->
+                decoded.add(WaitingNumberResponseDTO.builder()
+                        .userId(userId)
+                        .waitingNumber(waitingNumber)
+                        .joinSequence(joinSequence)
+                        .estimatedWaitSeconds(estimatedWaitSeconds)
+                        .pollIntervalMillis(pollIntervalMillis)
+                        .immediateEntry(immediateEntry)
+                        .build()));
+        return decoded;
+    }
+
+    private static byte[] toBytes(ByteBuffer frame) {
+        return Arrays.copyOfRange(frame.array(), frame.arrayOffset() + frame.position(), frame.arrayOffset() + frame.limit());
+    }
+
+    /// 실제 알림과 같은 필드 구성 (lane, message는 프레임에 없으므로 기본값)
+    private static List<WaitingNumberResponseDTO> block() {
+        List<WaitingNumberResponseDTO> block = new ArrayList<>(WINDOW_SIZE);
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            block.add(WaitingNumberResponseDTO.builder()
+                    .userId(String.valueOf(100000 + i))
+                    .waitingNumber(i + 1)
+                    .joinSequence(5000 + i)
+                    .estimatedWaitSeconds((i + 1) / 50)
+                    .pollIntervalMillis(2000)
+                    .immediateEntry(false)
+                    .build());
+        }
+        return block;
+    }
+
+    private static void report(String name, long nanos, long bytesPerBlock) {
+        log.info("{} : {} rounds x {} users, {} ms ({} us/round), {} bytes/block",
+                name, ROUNDS, WINDOW_SIZE, String.format("%.1f", nanos / 1_000_000.0),
+                String.format("%.1f", nanos / 1_000.0 / ROUNDS), bytesPerBlock);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mnms.booking.util;
+
+import com.mnms.booking.dto.response.WaitingNumberResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WaitingNumberFrameCodecTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        List<WaitingNumberResponseDTO> block = List.of(
+                dto("1", 1, 101, 3, 2000, false),
+                dto("사용자-2", 2, 102, -1, 0, false),
+                dto("3", 0, 0, 0, 0, true)
+        );
+
+        List<WaitingNumberResponseDTO> decoded = roundTrip(block, ByteBuffer.allocate(64 * 1024));
+
+        assertThat(decoded).isEqualTo(block);
+    }
+
+    @Test
+    void encodeGrowsUndersizedBuffer() {
+        List<WaitingNumberResponseDTO> block = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            block.add(dto(String.valueOf(100000 + i), i + 1, 5000 + i, i, 2000, false));
+        }
+
+        List<WaitingNumberResponseDTO> decoded = roundTrip(block, ByteBuffer.allocate(16));
+
+        assertThat(decoded).isEqualTo(block);
+    }
+
+    @Test
+    void jsonIsNotFrame() {
+        assertThat(WaitingNumberFrameCodec.isFrame("{\"userId\":\"1\"}".getBytes())).isFalse();
+    }
+
+    @Test
+    void decodeRejectsUnknownVersion() {
+        byte[] frame = toBytes(WaitingNumberFrameCodec.encode(List.of(dto("1", 1, 1, 0, 0, false)), ByteBuffer.allocate(64)));
+        frame[1] = 1;
+
+        assertThatThrownBy(() -> WaitingNumberFrameCodec.decode(frame, (userId, waitingNumber, joinSequence,
+                estimatedWaitSeconds, pollIntervalMillis, immediateEntry) -> {}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<WaitingNumberResponseDTO> roundTrip(List<WaitingNumberResponseDTO> block, ByteBuffer buffer) {
+        byte[] frame = toBytes(WaitingNumberFrameCodec.encode(block, buffer));
+        assertThat(WaitingNumberFrameCodec.isFrame(frame)).isTrue();
+
+        List<WaitingNumberResponseDTO> decoded = new ArrayList<>();
+        int count = WaitingNumberFrameCodec.decode(frame, (userId, waitingNumber, joinSequence,
+                estimatedWaitSeconds, pollIntervalMillis, immediateEntry) ->
+                decoded.add(dto(userId, waitingNumber, joinSequence, estimatedWaitSeconds, pollIntervalMillis, immediateEntry)));
+        assertThat(count).isEqualTo(block.size());
+        return decoded;
+    }
+
+    private static byte[] toBytes(ByteBuffer frame) {
+        return Arrays.copyOfRange(frame.array(), frame.arrayOffset() + frame.position(), frame.arrayOffset() + frame.limit());
+    }
+
+    private static WaitingNumberResponseDTO dto(String userId, long waitingNumber, long joinSequence,
+                                                long estimatedWaitSeconds, long pollIntervalMillis, boolean immediateEntry) {
+        return WaitingNumberResponseDTO.builder()
+                .userId(userId)
+                .waitingNumber(waitingNumber)
+                .joinSequence(joinSequence)
+                .estimatedWaitSeconds(estimatedWaitSeconds)
+                .pollIntervalMillis(pollIntervalMillis)
+                .immediateEntry(immediateEntry)
+                .build();
+    }
+}